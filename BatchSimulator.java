@@ -0,0 +1,215 @@
+import config.SimulationOptions;
+
+import utils.AsciiWriter;
+
+import java.io.IOException;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class that simulates a batch of scenarios in the same JVM, on a bounded pool of threads.
+ * The input is a directory, whose .in and .scn files are simulated, or a glob pattern. Every scenario has its own
+ * simulator, and its report is written to a matching output file: input_X.in becomes output_X.out, any other name
+ * gets the .out extension. A failed scenario is reported and does not stop the others; when the batch is run from
+ * the command line, the exit status is 1 if any scenario failed.
+ */
+public class BatchSimulator
+{
+    /**
+     * Creates a batch.
+     * @param options The options of the simulation, whose input is a directory or a glob pattern.
+     * @throws IllegalArgumentException If tracing is requested, as the scenarios would share the trace file.
+     */
+    public BatchSimulator(SimulationOptions options) throws IllegalArgumentException
+    {
+        if(options.getTracePath() != null) throw new IllegalArgumentException("Traces are not supported in batch mode");
+
+        this.options = options;
+    }
+
+    /**
+     * Finds the scenarios of the batch, sorted by path.
+     * @return The paths of the scenarios.
+     * @throws IOException If there are errors while listing the files.
+     */
+    public List<Path> findInputs() throws IOException
+    {
+        String input = this.options.getInputPath();
+        Path directory = Path.of(input);
+        PathMatcher matcher;
+        int depth;
+
+        if(Files.isDirectory(directory))
+        {
+            matcher = path -> path.toString().endsWith(".in") || path.toString().endsWith(".scn");
+            depth = 1;
+        }
+        else
+        {
+            // Walking from the longest prefix of the pattern that contains no glob characters.
+            int wildcard = 0;
+
+            while(wildcard < input.length() && GLOB_CHARACTERS.indexOf(input.charAt(wildcard)) == -1)
+            {
+                wildcard++;
+            }
+
+            int separator = input.lastIndexOf('/', wildcard);
+
+            directory = Path.of(separator == -1 ? "." : input.substring(0, separator + 1));
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + (separator == -1 ? "./" : "") + input);
+            depth = input.contains("**") ? Integer.MAX_VALUE : (int)input.substring(separator + 1).chars().filter(c -> c == '/').count() + 1;
+        }
+
+        PathMatcher filter = matcher;
+
+        try(Stream<Path> paths = Files.walk(directory, depth))
+        {
+            return paths
+                    .filter(path -> Files.isRegularFile(path) && filter.matches(path))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the path of the output of a scenario.
+     * @param input The path of the scenario.
+     * @return The path of the output, in the output directory or next to the scenario.
+     */
+    public Path getOutputPath(Path input)
+    {
+        String name = input.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+
+        if(extension > 0)
+        {
+            name = name.substring(0, extension);
+        }
+
+        if(name.startsWith("input"))
+        {
+            name = "output" + name.substring("input".length());
+        }
+
+        Path directory = this.options.getOutputDir() != null ? Path.of(this.options.getOutputDir()) : input.toAbsolutePath().getParent();
+
+        return directory.resolve(name + ".out");
+    }
+
+    /**
+     * Simulates all the scenarios of the batch and writes their outputs.
+     * @return The number of scenarios that failed.
+     * @throws IOException If there are errors while listing the scenarios or creating the output directory, or if
+     *                     two scenarios have the same output file.
+     */
+    public int run() throws IOException
+    {
+        List<Path> inputs = this.findInputs();
+        Map<Path, Path> outputs = new HashMap<>();
+
+        // Scenarios with the same name in different directories would overwrite each other's output.
+        for(Path input: inputs)
+        {
+            Path previous = outputs.putIfAbsent(this.getOutputPath(input), input);
+
+            if(previous != null) throw new IOException("Inputs " + previous + " and " + input + " have the same output file");
+        }
+
+        if(this.options.getOutputDir() != null)
+        {
+            Files.createDirectories(Path.of(this.options.getOutputDir()));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(this.options.getBatchThreads());
+        List<Future<Void>> results = new ArrayList<>(inputs.size());
+        int failures = 0;
+
+        try
+        {
+            for(Path input: inputs)
+            {
+                results.add(pool.submit(() ->
+                {
+                    this.simulate(input);
+                    return null;
+                }));
+            }
+
+            // Reporting the failures in input order.
+            for(int i = 0; i < inputs.size(); i++)
+            {
+                try
+                {
+                    results.get(i).get();
+                }
+                catch(ExecutionException e)
+                {
+                    System.out.println(inputs.get(i) + ": " + e.getCause());
+                    failures++;
+                }
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the scenarios", e);
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+
+        return failures;
+    }
+
+    /**
+     * Simulates a scenario and writes its output.
+     * @param input The path of the scenario.
+     * @throws IOException If there are errors while reading the scenario or writing the output.
+     */
+    protected void simulate(Path input) throws IOException
+    {
+        try(Simulator sim = new Simulator(this.options.forInput(input.toString()));
+            FileChannel output = FileChannel.open(this.getOutputPath(input),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            sim.run();
+
+            AsciiWriter out = new AsciiWriter(output, OUTPUT_BUFFER_SIZE);
+            sim.write(out);
+            out.flush();
+        }
+    }
+
+    /**
+     * Characters that start a glob construct.
+     */
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    /**
+     * Size in bytes of the buffer used to write each report.
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Options of the simulation.
+     */
+    private final SimulationOptions options;
+}
@@ -1,28 +1,45 @@
 import config.Category;
 import config.ProjectConfig;
+import config.Scenario;
+import config.SimulationOptions;
 
-import events.EventHandler;
-import events.entries.ArrivalEntry;
-import events.entries.Entry;
-import events.entries.FinishEntry;
+import monitoring.SimulationProgress;
 
-import scheduling.policy.CustomPolicy;
-import scheduling.policy.DefaultPolicy;
-import scheduling.Scheduler;
-import scheduling.Server;
+import simulation.Replication;
+import simulation.Replication.HistoryEntry;
 
-import scheduling.policy.SchedulingPolicy;
+import trace.TraceSink;
+
+import utils.AsciiWriter;
 import utils.RandomGenerator;
 
-import java.io.FileReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Class that implements a simulator.
+ * Runs are executed sequentially, with the random generators carrying their state from one run to the next, or as
+ * independent replications in parallel, each one with its own substreams of the generators.
+ * When a trace file is given, the events of the sequential runs are recorded in it; the simulator must be closed to
+ * complete the trace.
+ * The progress of the runs is published as the SimulationProgress MBean in the platform MBean server, under
+ * jobscheduler:type=SimulationProgress, until the simulator is closed.
  */
-public class Simulator
+public class Simulator implements Closeable
 {
     /**
      * Simulator constructor.
@@ -31,287 +48,290 @@ public class Simulator
      */
     public Simulator(String path) throws IOException
     {
-        // Reading input from file
-        readInput(path);
-
-        this.history = new PriorityQueue<>();
-        this.currentRun = 0;
+        this(new SimulationOptions(path));
     }
 
     /**
-     * Executes the next iteration of the R simulations.
-     * @throws IllegalStateException If the simulation has already run R times.
+     * Simulator constructor.
+     * @param options The options of the simulation.
+     * @throws IOException If there are errors while reading input or creating the trace file.
+     * @throws IllegalArgumentException If tracing is requested for parallel runs.
      */
-    public void nextRun() throws IllegalStateException
+    public Simulator(SimulationOptions options) throws IOException, IllegalArgumentException
     {
-        if(!this.hasNext()) throw new IllegalStateException();
-
-        this.run();
+        this.options = options;
 
-        // Adding stats to the project and cleaning each category stats.
-        for(Category category: categories)
+        if(options.getTracePath() != null && options.isParallel())
         {
-            config.addCategoryStats(category.getId(), category.getAvgQueuingTime(), category.getAvgServiceTime(), category.getProcessedCategories());
-            category.clearStats();
+            throw new IllegalArgumentException("Traces are not supported by parallel runs");
         }
 
-        this.currentRun++;
+        // Reading input from file
+        readInput(options.getInputPath());
+
+        this.trace = options.getTracePath() != null ? new TraceSink(Path.of(options.getTracePath())) : null;
+
+        // Monitoring is best effort: the simulation runs even if the MBean cannot be registered.
+        this.progress = new SimulationProgress(this.config.getSimulationRepetitions(), this.config.getTotalJobs());
+        this.progress.register(options.getInputPath());
+
+        this.history = Collections.emptyList();
+        this.replication = null;
+        this.currentRun = 0;
     }
 
     /**
-     * Checks if he can run the next time.
-     * @return If he can run the next time.
+     * Executes all the remaining runs, in parallel if the options require it.
+     * @throws IllegalStateException If a parallel run fails.
      */
-    public boolean hasNext()
+    public void run() throws IllegalStateException
     {
-        return this.currentRun < this.config.getSimulationRepetitions();
+        if(options.isParallel())
+        {
+            this.runParallel();
+        }
+
+        while(this.hasNext())
+        {
+            this.nextRun();
+        }
     }
 
     /**
-     * Runs 1 of R simulations.
+     * Executes the next iteration of the R simulations.
+     * @throws IllegalStateException If the simulation has already run R times.
      */
-    protected void run()
+    public void nextRun() throws IllegalStateException
     {
-        // Creating an event handler
-        this.evtHandler = new EventHandler();
-
-        // Initializing jobs.
-        this.initializeJobs();
-
-        SchedulingPolicy policy = null;
+        if(!this.hasNext()) throw new IllegalStateException();
 
-        if(config.getSchedulingPolicy() == 0)
-        {
-            policy = new DefaultPolicy();
-        }
-        else
+        // The sequential replication is created lazily and reused by every run.
+        if(this.replication == null)
         {
-            policy = new CustomPolicy();
+            this.replication = new Replication(this.config, this.options, this.categories, new RandomGenerator(options.getDispatchSeed()), this.trace);
+            this.replication.setProgress(this.progress, this.currentRun);
+            this.history = this.replication.getHistory();
         }
 
-        // Creating a new scheduler.
-        Scheduler scheduler = new Scheduler(this.createServers(), this.evtHandler, policy);
+        this.replication.run(this.config);
 
-        double currentEta = 0;
+        this.currentRun++;
+    }
 
-        // Running until all jobs are finished
-        while(this.evtHandler.hasEvent())
+    /**
+     * Executes all the remaining runs as independent replications on a pool of threads.
+     * Every run uses its own categories, whose generators are substreams derived from the input seeds and the index
+     * of the run, so the results are reproducible and do not depend on the number of threads. The stats of the runs
+     * are merged in run order.
+     * @throws IllegalStateException If a run fails.
+     */
+    public void runParallel() throws IllegalStateException
+    {
+        int firstRun = this.currentRun;
+        int runs = this.config.getSimulationRepetitions() - firstRun;
+        ProjectConfig[] stats = new ProjectConfig[runs];
+        Replication[] replications = new Replication[runs];
+        List<Callable<Void>> tasks = new ArrayList<>(runs);
+
+        for(int i = 0; i < runs; i++)
         {
-            Entry entry = this.evtHandler.remove();
-            if(entry instanceof ArrivalEntry)
+            int index = i;
+
+            tasks.add(() ->
             {
-                // If we already reached the total number of jobs to handle we just ignore the event.
-                if(scheduler.getArrivedJobs() < this.config.getTotalJobs())
-                {
-                    this.evtHandler.generateArrivalEvent(entry.getCategory(), entry.getKey());
-                    scheduler.schedule(entry);
+                int run = firstRun + index;
+                List<Category> streams = new ArrayList<>(this.categories.size());
 
-                    this.pushToHistory(entry);
+                for(Category category: this.categories)
+                {
+                    streams.add(category.forStream(run));
                 }
 
-            }
-            else if(entry instanceof FinishEntry)
-            {
-                // Scheduling the finish event
-                scheduler.schedule(entry);
+                RandomGenerator dispatchGenerator = new RandomGenerator(RandomGenerator.substreamSeed(options.getDispatchSeed(), run));
 
-                FinishEntry finishEntry = (FinishEntry) entry;
+                stats[index] = this.createStats();
+                replications[index] = new Replication(this.config, this.options, streams, dispatchGenerator);
+                replications[index].setProgress(this.progress, run);
+                replications[index].run(stats[index]);
 
-                currentEta = finishEntry.getKey();
+                return null;
+            });
+        }
 
-                ArrivalEntry origin = finishEntry.getLinkedArrival();
-                double delta = origin.getStartExecution() - origin.getKey();
+        ForkJoinPool pool = new ForkJoinPool(options.getParallelism());
 
-                // Adding queuing time for category-related stats
-                entry.getCategory().addStats(delta, finishEntry.getServiceTime());
+        try
+        {
+            for(Future<Void> future: pool.invokeAll(tasks))
+            {
+                future.get();
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the runs", e);
+        }
+        catch(ExecutionException e)
+        {
+            throw new IllegalStateException("Run failed", e.getCause());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
 
-                // Adding queuing time for job-related stats
-                config.addJobQueuingTime(delta);
+        // Merging in run order, so that the result does not depend on the scheduling of the threads.
+        for(int i = 0; i < runs; i++)
+        {
+            this.config.merge(stats[i]);
+        }
 
-                pushToHistory(entry);
-            }
+        if(runs > 0 && firstRun == 0)
+        {
+            this.history = replications[0].getHistory();
         }
 
-        config.addEndTime(currentEta);
+        this.currentRun += runs;
     }
 
     /**
-     * Initializes the initial jobs.
+     * Checks if he can run the next time.
+     * @return If he can run the next time.
      */
-    protected void initializeJobs()
+    public boolean hasNext()
     {
-        // Initializing jobs
-        for(int i = 0; i < config.getCategoriesNumber(); i++)
-        {
-            Category catConfig = categories.get(i);
-            evtHandler.generateArrivalEvent(catConfig, 0);
-        }
+        return this.currentRun < this.config.getSimulationRepetitions();
     }
 
     /**
-     * Creates the servers
-     * @return The list of created servers.
+     * Creates an empty configuration with the same parameters of the simulation, used to collect the stats of a run.
+     * @return The new configuration.
      */
-    protected Collection<Server> createServers()
+    protected ProjectConfig createStats()
     {
-        Collection<Server> servers = null;
-
-        if(config.getSchedulingPolicy() == 0)
-        {
-            servers = new ArrayList<>();
-        }
-        else
-        {
-            servers = new PriorityQueue<>();
-        }
-
-        // Creating K servers.
-        for(int i = 0; i < config.getServerNumber(); i++)
-        {
-            servers.add(new Server(i));
-        }
-
-        return servers;
+        return new ProjectConfig(
+                config.getServerNumber(),
+                config.getCategoriesNumber(),
+                config.getTotalJobs(),
+                config.getSimulationRepetitions(),
+                config.getSchedulingPolicy()
+        );
     }
 
     /**
-     * Reads input from file.
+     * Reads input from file, in the text or in the binary scenario format.
      * @param path The path of the input file.
      * @throws IOException If there are errors while reading the file.
      */
     protected void readInput(String path) throws IOException
     {
-        Scanner fileScanner = new Scanner(new FileReader(path));
+        Scenario scenario = Scenario.read(Path.of(path));
 
-        if(fileScanner.hasNextLine())
-        {
-            Scanner metaScanner = new Scanner(fileScanner.nextLine());
-            metaScanner.useDelimiter(",");
-
-            // Reading config.
-            int kServerNumber          = Integer.parseInt(metaScanner.next());
-            int hCategoriesNumber      = Integer.parseInt(metaScanner.next());
-            int nTotalJobs             = Integer.parseInt(metaScanner.next());
-            int rSimulationRepetitions = Integer.parseInt(metaScanner.next());
-            int pSchedulingPolicyType  = Integer.parseInt(metaScanner.next());
-
-            config = new ProjectConfig(
-                    kServerNumber,
-                    hCategoriesNumber,
-                    nTotalJobs,
-                    rSimulationRepetitions,
-                    pSchedulingPolicyType
-            );
-
-            metaScanner.close();
-        }
-
-        categories = new ArrayList<>(Arrays.asList(new Category[config.getCategoriesNumber()]));
-
-        int i = 0;
-
-        // Reading categories.
-        while (fileScanner.hasNextLine() && i < config.getCategoriesNumber())
-        {
-            Scanner paramScanner = new Scanner((fileScanner.nextLine()));
-            paramScanner.useDelimiter(",");
-
-            double lambdaArrival             = Double.parseDouble(paramScanner.next());
-            double lambdaService             = Double.parseDouble(paramScanner.next());
-            int seedArrival                  = Integer.parseInt(paramScanner.next());
-            int seedService                  = Integer.parseInt(paramScanner.next());
-            RandomGenerator arrivalGenerator = new RandomGenerator(seedArrival);
-            RandomGenerator serviceGenerator = new RandomGenerator(seedService);
-
-            Category catConfig = new Category(
-                    i,
-                    lambdaArrival,
-                    lambdaService,
-                    seedArrival,
-                    seedService,
-                    arrivalGenerator,
-                    serviceGenerator
-            );
-
-            categories.set(i, catConfig);
-
-            paramScanner.close();
-
-            i++;
-        }
-
-        fileScanner.close();
+        config = scenario.getConfig();
+        categories = scenario.createCategories(options.getSampler());
     }
 
-    public String toString()
+    /**
+     * Writes the report of the simulation.
+     * @param out The writer.
+     * @throws IOException If there are errors while writing.
+     */
+    public void write(AsciiWriter out) throws IOException
     {
-        // Using builder for performance.
-        StringBuilder builder = new StringBuilder();
-
         // Showing input data.
-        builder
+        out
                 .append(config.getServerNumber()).append(',')
                 .append(config.getCategoriesNumber()).append(',')
                 .append(config.getTotalJobs()).append(',')
                 .append(config.getSimulationRepetitions()).append(',')
-                .append(config.getSchedulingPolicy()).append(System.lineSeparator());
+                .append(config.getSchedulingPolicy()).newLine();
 
         // Check the type of output to use.
         if(config.hasShortOutput())
         {
-            PriorityQueue<Entry> tHistory = new PriorityQueue<>(history);
-
-            while(!tHistory.isEmpty())
+            // Events are pushed in time order, so the history is already sorted.
+            for(HistoryEntry entry: history)
             {
-                Entry entry = tHistory.remove();
-
-                double serviceTime = 0;
-
-                if(entry instanceof FinishEntry)
-                {
-                    serviceTime = ((FinishEntry)entry).getServiceTime();
-                }
-
-                builder
-                        .append(entry.getKey()).append(',')
-                        .append(serviceTime).append(',')
-                        .append(entry.getCategory().getId()).append(System.lineSeparator());
+                out
+                        .append(entry.time).append(',')
+                        .append(entry.serviceTime).append(',')
+                        .append(entry.categoryId).newLine();
             }
         }
 
         if(currentRun != 0)
         {
-            builder
-                    .append(config.getAvgEta()).append(System.lineSeparator())
-                    .append(config.getAvgQueuingTime()).append(System.lineSeparator());
+            out
+                    .append(config.getAvgEta()).newLine()
+                    .append(config.getAvgQueuingTime()).newLine();
 
             for(Category catConfig: categories)
             {
                 int id = catConfig.getId();
 
-                builder
-                        //.append(id).append(',')
+                out
                         .append(config.getAvgCategoryNumber(id)).append(',')
                         .append(config.getAvgCategoryQueuingTime(id)).append(',')
-                        .append(config.getAvgCategoryServiceTime(id)).append(System.lineSeparator());
+                        .append(config.getAvgCategoryServiceTime(id)).newLine();
             }
 
         }
-        return builder.toString();
     }
 
     /**
-     * Pushes an entry to history.
-     * @param entry The entry to push.
+     * Getter for the progress.
+     * @return The progress of the runs.
      */
-    protected void pushToHistory(Entry entry)
+    public SimulationProgress getProgress()
     {
-        if(config.hasShortOutput())
+        return this.progress;
+    }
+
+    /**
+     * Unregisters the progress MBean, then completes and closes the trace file, if any.
+     * @throws IOException If there are errors while closing the trace file.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.progress.unregister();
+
+        if(this.trace != null)
+        {
+            this.trace.close();
+        }
+    }
+
+    public String toString()
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsciiWriter out = new AsciiWriter(Channels.newChannel(bytes), OUTPUT_BUFFER_SIZE);
+
+        try
         {
-            history.add(entry);
+            this.write(out);
+            out.flush();
         }
+        catch(IOException e)
+        {
+            // Writing to memory does not fail.
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toString(StandardCharsets.US_ASCII);
     }
 
+    /**
+     * Size in bytes of the buffer used to write the report.
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Options of the simulation.
+     */
+    private final SimulationOptions options;
+
     /**
      * Project configuration class
      */
@@ -323,15 +343,25 @@ public class Simulator
     private List<Category> categories;
 
     /**
-     * Event handler.
+     * History is useful to track the state of some simulations.
+     * In all other cases this list remains empty.
      */
-    private EventHandler evtHandler;
+    private List<HistoryEntry> history;
 
     /**
-     * History is useful to track the state of some simulations.
-     * In all other cases this array remains empty.
+     * Replication that executes the sequential runs.
+     */
+    private Replication replication;
+
+    /**
+     * Sink of the trace of the runs, null if tracing is disabled.
      */
-    private PriorityQueue<Entry> history;
+    private final TraceSink trace;
+
+    /**
+     * Progress of the runs, published as an MBean.
+     */
+    private final SimulationProgress progress;
 
     /**
      * Index of the current run.
@@ -341,20 +371,34 @@ public class Simulator
     public static void main(String[] args)
     {
         // Basic input parameter check
-        if(args.length == 0) throw new IllegalArgumentException("Invalid parameter");
+        SimulationOptions options = SimulationOptions.parse(args);
 
         try
         {
-            // Instantiating simulation
-            Simulator sim = new Simulator(args[0]);
-
-            while(sim.hasNext())
+            if(options.isBatch())
             {
-                sim.nextRun();
+                // Simulating every scenario of the directory or glob pattern, each one to its own output file.
+                int failures = new BatchSimulator(options).run();
+
+                // Failed scenarios are reported in the exit status, so that scripts can detect them.
+                if(failures > 0)
+                {
+                    System.exit(1);
+                }
+
+                return;
             }
 
-            System.out.print(sim);
+            // Instantiating simulation
+            try(Simulator sim = new Simulator(options))
+            {
+                sim.run();
 
+                // Streaming the report to the standard output, without building it in memory.
+                AsciiWriter out = new AsciiWriter(new FileOutputStream(FileDescriptor.out).getChannel(), OUTPUT_BUFFER_SIZE);
+                sim.write(out);
+                out.flush();
+            }
         }
         catch(IOException e)
         {
@@ -0,0 +1,199 @@
+import benchmark.Scenarios;
+
+import config.SimulationOptions;
+
+import java.io.IOException;
+
+import java.lang.management.ManagementFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Regression check of the allocations of the simulator in steady state.
+ * For every scheduling policy and event queue, it runs the simulator on a short and on a long scenario that differ
+ * only in the number of jobs, and measures the bytes allocated by the simulating thread. The difference, divided by
+ * the additional events, is the allocation per event in steady state: the allocations that do not depend on the
+ * number of jobs (tables, queues, categories) cancel out. The runs are repeated until the JIT has compiled the event
+ * loop, and the smallest measure is kept.
+ * Usage: AllocationCheck [--budget=bytes_per_event]
+ * The exit status is 1 if a configuration allocates more than the budget, 0.1 bytes per event by default.
+ */
+public class AllocationCheck
+{
+    /**
+     * Creates a check.
+     * @param budget The maximum allocated bytes per event.
+     */
+    public AllocationCheck(double budget)
+    {
+        this.budget = budget;
+        this.threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Measures the allocation per event of a configuration.
+     * @param policy The scheduling policy.
+     * @param queue The name of the event queue implementation.
+     * @return The allocated bytes per event in steady state.
+     * @throws IOException If the scenarios cannot be written.
+     */
+    public double measure(int policy, String queue) throws IOException
+    {
+        Path shortScenario = Files.createTempFile("allocation", ".scn");
+        Path longScenario = Files.createTempFile("allocation", ".scn");
+
+        try
+        {
+            Scenarios.create(SERVERS, CATEGORIES, SHORT_JOBS, policy, LOAD).writeBinary(shortScenario);
+            Scenarios.create(SERVERS, CATEGORIES, LONG_JOBS, policy, LOAD).writeBinary(longScenario);
+
+            String[] args = {"--event-queue=" + queue, shortScenario.toString()};
+            SimulationOptions shortOptions = SimulationOptions.parse(args);
+            SimulationOptions longOptions = shortOptions.forInput(longScenario.toString());
+
+            double best = Double.POSITIVE_INFINITY;
+
+            for(int i = 0; i < ROUNDS; i++)
+            {
+                long shortBytes = this.allocatedBytes(shortOptions);
+                long longBytes = this.allocatedBytes(longOptions);
+
+                best = Math.min(best, (double)(longBytes - shortBytes) / (2.0 * (LONG_JOBS - SHORT_JOBS)));
+            }
+
+            return Math.max(best, 0);
+        }
+        finally
+        {
+            Files.deleteIfExists(shortScenario);
+            Files.deleteIfExists(longScenario);
+        }
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread while the simulator runs, excluding the reading of the input.
+     * @param options The options of the simulation.
+     * @return The allocated bytes.
+     * @throws IOException If the scenario cannot be read.
+     */
+    private long allocatedBytes(SimulationOptions options) throws IOException
+    {
+        try(Simulator sim = new Simulator(options))
+        {
+            long thread = Thread.currentThread().getId();
+            long before = this.threads.getThreadAllocatedBytes(thread);
+
+            sim.run();
+
+            return this.threads.getThreadAllocatedBytes(thread) - before;
+        }
+    }
+
+    /**
+     * Checks every policy with every event queue.
+     * @return The descriptions of the configurations over budget, empty if there are none.
+     * @throws IOException If the scenarios cannot be written.
+     */
+    public List<String> run() throws IOException
+    {
+        List<String> failures = new ArrayList<>();
+
+        for(int policy = 0; policy <= 5; policy++)
+        {
+            for(String queue: QUEUES)
+            {
+                double bytes = this.measure(policy, queue);
+                String result = String.format(Locale.ROOT, "policy %d, %s queue: %.3f bytes/event", policy, queue, bytes);
+
+                System.out.println(result);
+
+                if(bytes > this.budget)
+                {
+                    failures.add(result);
+                }
+            }
+        }
+
+        return failures;
+    }
+
+    /**
+     * Event queue implementations.
+     */
+    private static final String[] QUEUES = {"heap", "indexed", "calendar"};
+
+    /**
+     * Number of servers of the scenarios.
+     */
+    private static final int SERVERS = 100;
+
+    /**
+     * Number of categories of the scenarios.
+     */
+    private static final int CATEGORIES = 10;
+
+    /**
+     * Number of jobs of the short scenario.
+     */
+    private static final int SHORT_JOBS = 100000;
+
+    /**
+     * Number of jobs of the long scenario.
+     */
+    private static final int LONG_JOBS = 300000;
+
+    /**
+     * Offered load of the scenarios.
+     */
+    private static final double LOAD = 0.9;
+
+    /**
+     * Number of measures of each configuration.
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * Maximum allocated bytes per event.
+     */
+    private final double budget;
+
+    /**
+     * Source of the allocation counters.
+     */
+    private final com.sun.management.ThreadMXBean threads;
+
+    public static void main(String[] args) throws IOException
+    {
+        double budget = 0.1;
+
+        for(String arg: args)
+        {
+            if(arg.startsWith("--budget="))
+            {
+                budget = Double.parseDouble(arg.substring("--budget=".length()));
+            }
+            else
+            {
+                System.out.println("Usage: AllocationCheck [--budget=bytes_per_event]");
+                return;
+            }
+        }
+
+        List<String> failures = new AllocationCheck(budget).run();
+
+        for(String failure: failures)
+        {
+            System.out.println("OVER BUDGET " + failure);
+        }
+
+        if(!failures.isEmpty())
+        {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import config.Category;
+
+import events.EventHandler;
+import events.JobTable;
+import events.queue.EventQueueType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.ExponentialSampler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of the event handler: every operation removes the earliest arrival event and generates the next
+ * arrival of its category, so it measures the event queue and the sampling of the inter-arrival times in steady
+ * state. Results are in events per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventHandlerBenchmark
+{
+    /**
+     * The number of categories, which is the number of pending arrival events.
+     */
+    @Param({"3", "100", "1000"})
+    public int categories;
+
+    /**
+     * The event queue implementation.
+     */
+    @Param({"heap", "indexed", "calendar"})
+    public String queue;
+
+    /**
+     * Creates the event handler with one pending arrival per category.
+     */
+    @Setup
+    public void setup()
+    {
+        List<Category> categories = Scenarios.create(SERVERS, this.categories, Integer.MAX_VALUE, 0, 0.9).createCategories(ExponentialSampler.LEGACY);
+
+        this.handler = new EventHandler(categories, SERVERS, new JobTable(SERVERS), EventQueueType.fromName(this.queue));
+        this.handler.initializeArrivals();
+    }
+
+    /**
+     * Processes an arrival event.
+     * @return The time of the event.
+     */
+    @Benchmark
+    public double arrival()
+    {
+        int slot = this.handler.remove();
+        double time = this.handler.getTime(slot);
+
+        this.handler.generateArrivalEvent(this.handler.getCategory(slot), time);
+
+        return time;
+    }
+
+    /**
+     * Number of servers of the handler, which have no events.
+     */
+    private static final int SERVERS = 16;
+
+    /**
+     * The event handler.
+     */
+    private EventHandler handler;
+}
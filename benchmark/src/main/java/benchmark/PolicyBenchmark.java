@@ -0,0 +1,132 @@
+package benchmark;
+
+import config.Category;
+
+import events.EventHandler;
+import events.JobTable;
+import events.queue.EventQueueType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import scheduling.Scheduler;
+import scheduling.Server;
+import scheduling.ServerDiscipline;
+
+import scheduling.policy.CustomPolicy;
+import scheduling.policy.DefaultPolicy;
+import scheduling.policy.SchedulingPolicy;
+
+import utils.ExponentialSampler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of the dispatch decision of the round robin and of the custom policy, in isolation from the
+ * servers and the events: every operation selects the server of an arriving job and notifies the policy that the
+ * job finished, so the index of the policy stays in steady state. Results are in dispatches per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PolicyBenchmark
+{
+    /**
+     * The number of servers.
+     */
+    @Param({"10", "100", "10000"})
+    public int servers;
+
+    /**
+     * The policy: round robin or custom.
+     */
+    @Param({"default", "custom"})
+    public String policy;
+
+    /**
+     * Creates the policy and loads it with jobs of every category.
+     */
+    @Setup
+    public void setup()
+    {
+        List<Category> categories = Scenarios.create(this.servers, CATEGORIES, Integer.MAX_VALUE, 1, 0.9).createCategories(ExponentialSampler.LEGACY);
+        JobTable jobs = new JobTable(CATEGORIES);
+        List<Server> serverList = new ArrayList<>(this.servers);
+
+        for(int i = 0; i < this.servers; i++)
+        {
+            serverList.add(new Server(i, ServerDiscipline.FIFO, jobs));
+        }
+
+        this.dispatcher = this.policy.equals("custom") ? new CustomPolicy() : new DefaultPolicy();
+        this.scheduler = new Scheduler(serverList, new EventHandler(categories, this.servers, jobs, EventQueueType.INDEXED), this.dispatcher, jobs, categories);
+        this.jobs = new int[CATEGORIES];
+        this.next = 0;
+
+        for(int i = 0; i < CATEGORIES; i++)
+        {
+            this.jobs[i] = jobs.allocate(i, 0);
+        }
+
+        // Giving every server a different estimate, so that the index is not trivially ordered.
+        for(int i = 0; i < this.servers; i++)
+        {
+            this.dispatcher.onArrival(this.jobs[i % CATEGORIES], this.scheduler);
+        }
+    }
+
+    /**
+     * Dispatches a job and finishes it.
+     * @return The selected server.
+     */
+    @Benchmark
+    public Server dispatch()
+    {
+        int job = this.jobs[this.next];
+        Server server = this.dispatcher.onArrival(job, this.scheduler);
+
+        this.dispatcher.onFinish(server, job, this.scheduler);
+        this.next = this.next + 1 == CATEGORIES ? 0 : this.next + 1;
+
+        return server;
+    }
+
+    /**
+     * Number of categories of the jobs, with different mean service times.
+     */
+    private static final int CATEGORIES = 3;
+
+    /**
+     * The policy.
+     */
+    private SchedulingPolicy dispatcher;
+
+    /**
+     * The scheduler that owns the servers.
+     */
+    private Scheduler scheduler;
+
+    /**
+     * One job of each category.
+     */
+    private int[] jobs;
+
+    /**
+     * Index of the next job.
+     */
+    private int next;
+}
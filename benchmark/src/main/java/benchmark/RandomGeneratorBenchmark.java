@@ -0,0 +1,120 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.ExponentialSampler;
+import utils.RandomGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks of the random generator: single draws and bulk fills of the exponential distribution, with the
+ * legacy inversion method and with the ziggurat. Results are in samples per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomGeneratorBenchmark
+{
+    /**
+     * Number of samples drawn by a bulk fill.
+     */
+    public static final int BATCH = 256;
+
+    /**
+     * Creates the generator and the buffer.
+     */
+    @Setup
+    public void setup()
+    {
+        this.generator = new RandomGenerator(42);
+        this.samples = new double[BATCH];
+    }
+
+    /**
+     * A uniform double.
+     * @return The sample.
+     */
+    @Benchmark
+    public double nextDouble()
+    {
+        return this.generator.nextDouble();
+    }
+
+    /**
+     * An exponential sample with the legacy inversion method.
+     * @return The sample.
+     */
+    @Benchmark
+    public double exponentialLegacy()
+    {
+        return this.generator.exponentialDistribution(LAMBDA);
+    }
+
+    /**
+     * An exponential sample with the ziggurat.
+     * @return The sample.
+     */
+    @Benchmark
+    public double exponentialZiggurat()
+    {
+        return this.generator.nextExponential() * MEAN;
+    }
+
+    /**
+     * A bulk fill with the legacy inversion method.
+     * @return The buffer.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] fillLegacy()
+    {
+        ExponentialSampler.LEGACY.fill(this.generator, this.samples, 0, BATCH, LAMBDA, MEAN);
+        return this.samples;
+    }
+
+    /**
+     * A bulk fill with the ziggurat.
+     * @return The buffer.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] fillZiggurat()
+    {
+        ExponentialSampler.ZIGGURAT.fill(this.generator, this.samples, 0, BATCH, LAMBDA, MEAN);
+        return this.samples;
+    }
+
+    /**
+     * Lambda of the sampled distribution.
+     */
+    private static final double LAMBDA = 1.5;
+
+    /**
+     * Mean of the sampled distribution.
+     */
+    private static final double MEAN = 1.0 / LAMBDA;
+
+    /**
+     * The generator.
+     */
+    private RandomGenerator generator;
+
+    /**
+     * Buffer of the bulk fills.
+     */
+    private double[] samples;
+}
@@ -0,0 +1,514 @@
+package benchmark;
+
+import config.ProjectConfig;
+import config.Scenario;
+import config.SimulationOptions;
+
+import simulation.Replication;
+
+import utils.ExponentialSampler;
+import utils.RandomGenerator;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Scaling suite of the simulator.
+ * Starting from a base point, it sweeps the number of servers, the number of categories, the number of jobs and the
+ * offered load one at a time, up to the limits of the generated samples (K = 10000, H = 1000, N = 1000000), for the
+ * round robin and the custom policy. Scenarios are synthetic, with fixed seeds, and run in-process. For each point it
+ * reports the median wall time of a run, events per second, nanoseconds per event, peak heap and GC pauses.
+ * Usage: ScalingSuite [--repetitions=r] [--quick] [--csv=file] [--json=file] [--baseline=file] [--threshold=t]
+ * With a baseline CSV of a previous execution, the points whose events per second dropped by more than the threshold
+ * (0.15 by default) are reported as regressions, and the exit status is 1.
+ */
+public class ScalingSuite
+{
+    /**
+     * Creates a suite.
+     * @param repetitions The number of measured runs of each point, after a warm-up run.
+     * @param quick If the number of jobs is reduced tenfold, for smoke tests.
+     */
+    public ScalingSuite(int repetitions, boolean quick)
+    {
+        this.repetitions = repetitions;
+        this.quick = quick;
+        this.options = new SimulationOptions(null);
+    }
+
+    /**
+     * Returns the points of the suite: every sweep, for every policy.
+     * @return The points, without results.
+     */
+    public List<Point> createPoints()
+    {
+        List<Point> points = new ArrayList<>();
+        int scale = this.quick ? 10 : 1;
+
+        for(int policy: POLICIES)
+        {
+            for(int k: SWEEP_K)
+            {
+                points.add(new Point("K", policy, k, BASE_H, BASE_N / scale, BASE_LOAD));
+            }
+
+            for(int h: SWEEP_H)
+            {
+                points.add(new Point("H", policy, BASE_K, h, BASE_N / scale, BASE_LOAD));
+            }
+
+            for(int n: SWEEP_N)
+            {
+                points.add(new Point("N", policy, BASE_K, BASE_H, n / scale, BASE_LOAD));
+            }
+
+            for(double load: SWEEP_LOAD)
+            {
+                points.add(new Point("rho", policy, BASE_K, BASE_H, BASE_N / scale, load));
+            }
+        }
+
+        return points;
+    }
+
+    /**
+     * Runs the base point of each policy a few times, so that the first points are not measured in the interpreter.
+     */
+    public void warmUp()
+    {
+        for(int policy: POLICIES)
+        {
+            Scenario scenario = Scenarios.create(BASE_K, BASE_H, BASE_N / (this.quick ? 10 : 1), policy, BASE_LOAD);
+
+            for(int i = 0; i < WARM_UP_RUNS; i++)
+            {
+                this.runOnce(scenario);
+            }
+        }
+    }
+
+    /**
+     * Measures a point, storing the results in it.
+     * @param point The point.
+     */
+    public void measure(Point point)
+    {
+        Scenario scenario = Scenarios.create(point.k, point.h, point.n, point.policy, point.load);
+        long[] times = new long[this.repetitions];
+
+        // Warming up the JIT on the same scenario.
+        this.runOnce(scenario);
+
+        System.gc();
+        this.resetPeakHeap();
+
+        long gcTime = this.gcTime();
+        long gcCount = this.gcCount();
+
+        for(int i = 0; i < this.repetitions; i++)
+        {
+            times[i] = this.runOnce(scenario);
+        }
+
+        Arrays.sort(times);
+
+        point.wallNanos = times[times.length / 2];
+        point.eventsPerSecond = 2.0 * point.n / (point.wallNanos / 1e9);
+        point.nanosPerEvent = point.wallNanos / (2.0 * point.n);
+        point.peakHeapBytes = this.peakHeap();
+        point.gcMillis = this.gcTime() - gcTime;
+        point.gcCount = this.gcCount() - gcCount;
+    }
+
+    /**
+     * Executes a run of a scenario.
+     * @param scenario The scenario.
+     * @return The wall time of the run in nanoseconds.
+     */
+    private long runOnce(Scenario scenario)
+    {
+        ProjectConfig config = scenario.getConfig();
+        ProjectConfig stats = new ProjectConfig(config.getServerNumber(), config.getCategoriesNumber(), config.getTotalJobs(), 1, config.getSchedulingPolicy());
+
+        long start = System.nanoTime();
+
+        Replication replication = new Replication(config, this.options, scenario.createCategories(ExponentialSampler.LEGACY), new RandomGenerator(0));
+        replication.run(stats);
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Resets the peak usage of the heap pools.
+     */
+    private void resetPeakHeap()
+    {
+        for(MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if(pool.getType() == MemoryType.HEAP)
+            {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Returns the sum of the peak usages of the heap pools since the last reset.
+     * @return The peak heap in bytes.
+     */
+    private long peakHeap()
+    {
+        long peak = 0;
+
+        for(MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if(pool.getType() == MemoryType.HEAP)
+            {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        return peak;
+    }
+
+    /**
+     * Returns the total time spent in garbage collections.
+     * @return The time in milliseconds.
+     */
+    private long gcTime()
+    {
+        long time = 0;
+
+        for(GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            time += Math.max(collector.getCollectionTime(), 0);
+        }
+
+        return time;
+    }
+
+    /**
+     * Returns the total number of garbage collections.
+     * @return The number of collections.
+     */
+    private long gcCount()
+    {
+        long count = 0;
+
+        for(GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            count += Math.max(collector.getCollectionCount(), 0);
+        }
+
+        return count;
+    }
+
+    /**
+     * Writes the results as CSV, with a header line.
+     * @param points The measured points.
+     * @param out The writer.
+     */
+    public static void writeCsv(List<Point> points, PrintWriter out)
+    {
+        out.println(CSV_HEADER);
+
+        for(Point point: points)
+        {
+            writeCsvLine(point, out);
+        }
+    }
+
+    /**
+     * Writes the results of a point as a CSV line.
+     * @param point The measured point.
+     * @param out The writer.
+     */
+    public static void writeCsvLine(Point point, PrintWriter out)
+    {
+        out.printf(Locale.ROOT, "%s,%d,%.1f,%.2f,%d,%d,%d%n", point.key(), point.wallNanos, point.eventsPerSecond,
+                point.nanosPerEvent, point.peakHeapBytes, point.gcMillis, point.gcCount);
+    }
+
+    /**
+     * Writes the results as a JSON array of objects.
+     * @param points The measured points.
+     * @param out The writer.
+     */
+    public static void writeJson(List<Point> points, PrintWriter out)
+    {
+        out.println("[");
+
+        for(int i = 0; i < points.size(); i++)
+        {
+            Point point = points.get(i);
+
+            out.printf(Locale.ROOT, "  {\"sweep\": \"%s\", \"policy\": %d, \"k\": %d, \"h\": %d, \"n\": %d, \"load\": %.2f, "
+                            + "\"wall_ns\": %d, \"events_per_s\": %.1f, \"ns_per_event\": %.2f, \"peak_heap_bytes\": %d, "
+                            + "\"gc_ms\": %d, \"gc_count\": %d}%s%n",
+                    point.sweep, point.policy, point.k, point.h, point.n, point.load, point.wallNanos,
+                    point.eventsPerSecond, point.nanosPerEvent, point.peakHeapBytes, point.gcMillis, point.gcCount,
+                    i + 1 < points.size() ? "," : "");
+        }
+
+        out.println("]");
+    }
+
+    /**
+     * Compares the results with the ones of a previous execution.
+     * @param points The measured points.
+     * @param baseline The CSV of the previous execution.
+     * @param threshold The relative drop of events per second above which a point is a regression.
+     * @return The descriptions of the regressions, empty if there are none.
+     * @throws IOException If the baseline cannot be read.
+     */
+    public static List<String> findRegressions(List<Point> points, Path baseline, double threshold) throws IOException
+    {
+        Map<String, Double> previous = new HashMap<>();
+        List<String> lines = Files.readAllLines(baseline);
+
+        // Indexing the baseline by sweep and coordinates, skipping the header.
+        for(String line: lines.subList(Math.min(1, lines.size()), lines.size()))
+        {
+            String[] fields = line.split(",");
+
+            if(fields.length >= 8)
+            {
+                previous.put(String.join(",", Arrays.copyOf(fields, 6)), Double.parseDouble(fields[7]));
+            }
+        }
+
+        List<String> regressions = new ArrayList<>();
+
+        for(Point point: points)
+        {
+            Double before = previous.get(point.key());
+
+            if(before != null && point.eventsPerSecond < before * (1 - threshold))
+            {
+                regressions.add(String.format(Locale.ROOT, "%s: %.0f events/s, was %.0f (%.1f%%)", point.key(),
+                        point.eventsPerSecond, before, 100 * (point.eventsPerSecond / before - 1)));
+            }
+        }
+
+        return regressions;
+    }
+
+    /**
+     * Point of the suite and its results.
+     */
+    public static class Point
+    {
+        /**
+         * Creates a point without results.
+         * @param sweep The swept dimension.
+         * @param policy The scheduling policy.
+         * @param k The number of servers.
+         * @param h The number of categories.
+         * @param n The number of jobs.
+         * @param load The offered load.
+         */
+        public Point(String sweep, int policy, int k, int h, int n, double load)
+        {
+            this.sweep = sweep;
+            this.policy = policy;
+            this.k = k;
+            this.h = h;
+            this.n = n;
+            this.load = load;
+        }
+
+        /**
+         * Returns the key of the point, the first fields of its CSV line.
+         * @return The key.
+         */
+        public String key()
+        {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.2f", this.sweep, this.policy, this.k, this.h, this.n, this.load);
+        }
+
+        public final String sweep;
+        public final int policy;
+        public final int k;
+        public final int h;
+        public final int n;
+        public final double load;
+
+        public long wallNanos;
+        public double eventsPerSecond;
+        public double nanosPerEvent;
+        public long peakHeapBytes;
+        public long gcMillis;
+        public long gcCount;
+    }
+
+    /**
+     * Header of the CSV report.
+     */
+    public static final String CSV_HEADER = "sweep,policy,k,h,n,load,wall_ns,events_per_s,ns_per_event,peak_heap_bytes,gc_ms,gc_count";
+
+    /**
+     * Policies of the suite: round robin, which only exercises the event handler, and the custom policy.
+     */
+    private static final int[] POLICIES = {0, 1};
+
+    /**
+     * Base number of servers.
+     */
+    private static final int BASE_K = 100;
+
+    /**
+     * Base number of categories.
+     */
+    private static final int BASE_H = 10;
+
+    /**
+     * Base number of jobs.
+     */
+    private static final int BASE_N = 200000;
+
+    /**
+     * Base offered load.
+     */
+    private static final double BASE_LOAD = 0.9;
+
+    /**
+     * Swept numbers of servers.
+     */
+    private static final int[] SWEEP_K = {10, 100, 1000, 10000};
+
+    /**
+     * Swept numbers of categories.
+     */
+    private static final int[] SWEEP_H = {1, 10, 100, 1000};
+
+    /**
+     * Swept numbers of jobs.
+     */
+    private static final int[] SWEEP_N = {10000, 100000, 1000000};
+
+    /**
+     * Swept offered loads.
+     */
+    private static final double[] SWEEP_LOAD = {0.5, 0.7, 0.9, 0.95, 0.99};
+
+    /**
+     * Number of runs of each base point before the suite.
+     */
+    private static final int WARM_UP_RUNS = 5;
+
+    /**
+     * Number of measured runs of each point.
+     */
+    private final int repetitions;
+
+    /**
+     * If the number of jobs is reduced tenfold.
+     */
+    private final boolean quick;
+
+    /**
+     * Options of the simulation, the defaults.
+     */
+    private final SimulationOptions options;
+
+    public static void main(String[] args) throws IOException
+    {
+        int repetitions = 3;
+        boolean quick = false;
+        String csv = null;
+        String json = null;
+        String baseline = null;
+        double threshold = 0.15;
+
+        for(String arg: args)
+        {
+            int separator = arg.indexOf('=');
+            String name = separator == -1 ? arg : arg.substring(0, separator);
+            String value = separator == -1 ? "" : arg.substring(separator + 1);
+
+            switch(name)
+            {
+                case "--repetitions":
+                    repetitions = Integer.parseInt(value);
+                    break;
+                case "--quick":
+                    quick = true;
+                    break;
+                case "--csv":
+                    csv = value;
+                    break;
+                case "--json":
+                    json = value;
+                    break;
+                case "--baseline":
+                    baseline = value;
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(value);
+                    break;
+                default:
+                    System.out.println("Usage: ScalingSuite [--repetitions=r] [--quick] [--csv=file] [--json=file] [--baseline=file] [--threshold=t]");
+                    return;
+            }
+        }
+
+        ScalingSuite suite = new ScalingSuite(repetitions, quick);
+        List<Point> points = suite.createPoints();
+        PrintWriter console = new PrintWriter(System.out, true);
+
+        suite.warmUp();
+        console.println(CSV_HEADER);
+
+        for(Point point: points)
+        {
+            suite.measure(point);
+            writeCsvLine(point, console);
+        }
+
+        if(csv != null)
+        {
+            try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(Path.of(csv))))
+            {
+                writeCsv(points, out);
+            }
+        }
+
+        if(json != null)
+        {
+            try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(Path.of(json))))
+            {
+                writeJson(points, out);
+            }
+        }
+
+        if(baseline != null)
+        {
+            List<String> regressions = findRegressions(points, Path.of(baseline), threshold);
+
+            for(String regression: regressions)
+            {
+                System.out.println("REGRESSION " + regression);
+            }
+
+            if(!regressions.isEmpty())
+            {
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package benchmark;
+
+import config.ProjectConfig;
+import config.Scenario;
+
+import scheduling.policy.CustomPolicy;
+import scheduling.policy.DefaultPolicy;
+import scheduling.policy.JoinIdleQueuePolicy;
+import scheduling.policy.LeastWorkLeftPolicy;
+import scheduling.policy.PowerOfChoicesPolicy;
+import scheduling.policy.SchedulingPolicy;
+import scheduling.policy.ShortestQueuePolicy;
+
+import utils.RandomGenerator;
+
+/**
+ * Synthetic scenarios used by the benchmarks.
+ * Categories have service rates 1, 1.5 and 2 in turn and the same share of the arrivals, scaled so that the servers
+ * have the given load whatever the number of servers and categories.
+ */
+public final class Scenarios
+{
+    /**
+     * Creates a scenario with a single run.
+     * @param k The number of servers.
+     * @param h The number of categories.
+     * @param n The number of jobs.
+     * @param policy The scheduling policy.
+     * @param load The utilization of the servers, below 1 for a stable system.
+     * @return The scenario.
+     */
+    public static Scenario create(int k, int h, int n, int policy, double load)
+    {
+        double[] lambdaArrivals = new double[h];
+        double[] lambdaServices = new double[h];
+        int[] seedArrivals = new int[h];
+        int[] seedServices = new int[h];
+
+        double meanService = 0;
+
+        for(int i = 0; i < h; i++)
+        {
+            lambdaServices[i] = 1.0 + (i % 3) * 0.5;
+            meanService += 1.0 / lambdaServices[i] / h;
+        }
+
+        for(int i = 0; i < h; i++)
+        {
+            lambdaArrivals[i] = load * k / (h * meanService);
+            seedArrivals[i] = 1 + i;
+            seedServices[i] = 100001 + i;
+        }
+
+        return new Scenario(new ProjectConfig(k, h, n, 1, policy), lambdaArrivals, lambdaServices, seedArrivals, seedServices);
+    }
+
+    /**
+     * Creates a scheduling policy, with the same ids of the configuration line.
+     * @param policy The id of the policy.
+     * @param generator The random generator of the randomized policies.
+     * @return The policy.
+     * @throws IllegalArgumentException If the id is not valid.
+     */
+    public static SchedulingPolicy createPolicy(int policy, RandomGenerator generator) throws IllegalArgumentException
+    {
+        switch(policy)
+        {
+            case 0:
+                return new DefaultPolicy();
+            case 1:
+                return new CustomPolicy();
+            case 2:
+                return new ShortestQueuePolicy();
+            case 3:
+                return new PowerOfChoicesPolicy(2, generator);
+            case 4:
+                return new JoinIdleQueuePolicy(new PowerOfChoicesPolicy(2, generator));
+            case 5:
+                return new LeastWorkLeftPolicy();
+            default:
+                throw new IllegalArgumentException("Invalid scheduling policy " + policy);
+        }
+    }
+
+    /**
+     * Not instantiable.
+     */
+    private Scenarios()
+    {
+
+    }
+}
@@ -0,0 +1,160 @@
+package benchmark;
+
+import config.Category;
+
+import events.EventHandler;
+import events.JobTable;
+import events.queue.EventQueueType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import scheduling.Scheduler;
+import scheduling.Server;
+import scheduling.ServerDiscipline;
+
+import utils.ExponentialSampler;
+import utils.RandomGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of the scheduler with a constant backlog of jobs: every operation finishes the earliest job,
+ * which starts the next job of its server, and schedules a new arrival in its place. It measures the scheduler, the
+ * policy, the servers and the finish events, without the sampling of the arrivals. Results are in jobs per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchedulerBenchmark
+{
+    /**
+     * The number of servers.
+     */
+    @Param({"10", "1000"})
+    public int servers;
+
+    /**
+     * The scheduling policy, with the ids of the configuration line.
+     */
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int policy;
+
+    /**
+     * The number of jobs in the system, per server.
+     */
+    @Param({"4"})
+    public int backlog;
+
+    /**
+     * Creates the scheduler and fills the servers with the backlog.
+     */
+    @Setup
+    public void setup()
+    {
+        this.categories = Scenarios.create(this.servers, CATEGORIES, Integer.MAX_VALUE, this.policy, 0.9).createCategories(ExponentialSampler.LEGACY);
+        this.jobs = new JobTable(this.servers * this.backlog);
+        this.handler = new EventHandler(this.categories, this.servers, this.jobs, EventQueueType.INDEXED);
+        this.sizeAware = this.policy == 5;
+
+        List<Server> serverList = new ArrayList<>(this.servers);
+
+        for(int i = 0; i < this.servers; i++)
+        {
+            serverList.add(new Server(i, ServerDiscipline.FIFO, this.jobs));
+        }
+
+        this.scheduler = new Scheduler(serverList, this.handler, Scenarios.createPolicy(this.policy, new RandomGenerator(0)), this.jobs, this.categories);
+        this.nextCategory = 0;
+
+        for(int i = 0; i < this.servers * this.backlog; i++)
+        {
+            this.arrive(0);
+        }
+    }
+
+    /**
+     * Finishes the earliest job and replaces it with a new arrival.
+     * @return The time of the finish.
+     */
+    @Benchmark
+    public double finishAndArrive()
+    {
+        int slot = this.handler.remove();
+        double time = this.handler.getTime(slot);
+        int job = this.handler.getFinishedJob(slot);
+
+        this.scheduler.scheduleFinish(job);
+        this.jobs.release(job);
+        this.arrive(time);
+
+        return time;
+    }
+
+    /**
+     * Schedules the arrival of a job, cycling through the categories.
+     * @param time The arrival time.
+     */
+    private void arrive(double time)
+    {
+        int job = this.jobs.allocate(this.nextCategory, time);
+
+        this.nextCategory = (this.nextCategory + 1) % CATEGORIES;
+
+        if(this.sizeAware)
+        {
+            this.handler.generateServiceTime(job);
+        }
+
+        this.scheduler.scheduleArrival(job);
+    }
+
+    /**
+     * Number of categories of the jobs.
+     */
+    private static final int CATEGORIES = 3;
+
+    /**
+     * The categories of the jobs.
+     */
+    private List<Category> categories;
+
+    /**
+     * The table of the jobs.
+     */
+    private JobTable jobs;
+
+    /**
+     * The event handler, which holds only finish events.
+     */
+    private EventHandler handler;
+
+    /**
+     * The scheduler.
+     */
+    private Scheduler scheduler;
+
+    /**
+     * If service times are sampled at arrival, as required by least work left.
+     */
+    private boolean sizeAware;
+
+    /**
+     * Category of the next arrival.
+     */
+    private int nextCategory;
+}
@@ -0,0 +1,146 @@
+package benchmark;
+
+import config.ProjectConfig;
+import config.Scenario;
+import config.SimulationOptions;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import simulation.Replication;
+
+import utils.ExponentialSampler;
+import utils.RandomGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Macro-benchmark of a whole run of the simulation on synthetic scenarios, through the same replication used by the
+ * simulator. Every run processes N arrivals and N finishes; the events counter reports them per second, next to the
+ * runs per second. Run it with -prof gc for the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulationBenchmark
+{
+    /**
+     * The number of servers.
+     */
+    @Param({"10", "1000"})
+    public int k;
+
+    /**
+     * The number of categories.
+     */
+    @Param({"3", "100"})
+    public int h;
+
+    /**
+     * The number of jobs.
+     */
+    @Param({"100000"})
+    public int n;
+
+    /**
+     * The scheduling policy, with the ids of the configuration line.
+     */
+    @Param({"0", "1", "2", "5"})
+    public int policy;
+
+    /**
+     * The utilization of the servers.
+     */
+    @Param({"0.9"})
+    public double load;
+
+    /**
+     * Counter of the processed events, reported as a rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Events
+    {
+        /**
+         * Number of arrivals and finishes processed in the iteration.
+         */
+        public long events;
+
+        /**
+         * Resets the counter.
+         */
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            this.events = 0;
+        }
+    }
+
+    /**
+     * Creates the scenario.
+     */
+    @Setup
+    public void setup()
+    {
+        this.scenario = Scenarios.create(this.k, this.h, this.n, this.policy, this.load);
+        this.options = new SimulationOptions(null);
+    }
+
+    /**
+     * Creates a fresh replication, with new generators, before every run.
+     */
+    @Setup(Level.Invocation)
+    public void prepare()
+    {
+        this.stats = new ProjectConfig(this.k, this.h, this.n, 1, this.policy);
+        this.replication = new Replication(this.scenario.getConfig(), this.options, this.scenario.createCategories(ExponentialSampler.LEGACY), new RandomGenerator(0));
+    }
+
+    /**
+     * Executes a run.
+     * @param events The counter of the events.
+     * @return The stats of the run.
+     */
+    @Benchmark
+    public ProjectConfig run(Events events)
+    {
+        this.replication.run(this.stats);
+        events.events += 2L * this.n;
+
+        return this.stats;
+    }
+
+    /**
+     * The simulated scenario.
+     */
+    private Scenario scenario;
+
+    /**
+     * The options of the simulation, the defaults.
+     */
+    private SimulationOptions options;
+
+    /**
+     * The stats of the current run.
+     */
+    private ProjectConfig stats;
+
+    /**
+     * The replication of the current run.
+     */
+    private Replication replication;
+}
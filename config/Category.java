@@ -1,10 +1,14 @@
 package config;
 
+import utils.ExponentialSampler;
 import utils.RandomGenerator;
-
+import utils.SampleBuffer;
 
 /**
  * This class represents a category.
+ * Inter-arrival and service times are drawn in batches into sample buffers, in the same order in which they would be
+ * drawn one at a time, so the generators run ahead of the consumed samples: drainBuffers must be called before the
+ * generators are used directly.
  */
 public class Category
 {
@@ -20,18 +24,89 @@ public class Category
      * @param serviceGenerator Generator for service time with exponential distribution.
      */
     public Category(int id, double lambdaArrival, double lambdaService, int seedArrival, int seedService, RandomGenerator arrivalGenerator, RandomGenerator serviceGenerator)
+    {
+        this(id, lambdaArrival, lambdaService, seedArrival, seedService, arrivalGenerator, serviceGenerator, ExponentialSampler.LEGACY);
+    }
+
+    /**
+     * Creates a new category with the given exponential sampler.
+     *
+     * @param id Identifier of the category. It must be unique.
+     * @param lambdaArrival Lambda used for generating arrival times with exponential distribution of lambda.
+     * @param lambdaService Lambda used for generating service times with exponential distribution of lambda.
+     * @param seedArrival Seed used for generating inter-arrival times.
+     * @param seedService Seed used for generating service times.
+     * @param arrivalGenerator Generator for arrival time with exponential distribution.
+     * @param serviceGenerator Generator for service time with exponential distribution.
+     * @param sampler Method used to sample the exponential distribution.
+     */
+    public Category(int id, double lambdaArrival, double lambdaService, int seedArrival, int seedService, RandomGenerator arrivalGenerator, RandomGenerator serviceGenerator, ExponentialSampler sampler)
     {
         this.id               = id;
         this.lambdaArrival    = lambdaArrival;
         this.lambdaService    = lambdaService;
+        this.meanArrival      = 1.0 / lambdaArrival;
+        this.meanService      = 1.0 / lambdaService;
         this.seedArrival      = seedArrival;
         this.seedService      = seedService;
         this.arrivalGenerator = arrivalGenerator;
         this.serviceGenerator = serviceGenerator;
+        this.sampler          = sampler;
+        this.arrivalSamples   = new SampleBuffer(arrivalGenerator, sampler, lambdaArrival, SAMPLE_BUFFER_SIZE);
+        this.serviceSamples   = new SampleBuffer(serviceGenerator, sampler, lambdaService, SAMPLE_BUFFER_SIZE);
 
         this.clearStats();
     }
 
+    /**
+     * Samples the time between an arrival of the category and the next one.
+     * @return The inter-arrival time.
+     */
+    public double sampleInterArrivalTime()
+    {
+        return this.arrivalSamples.next();
+    }
+
+    /**
+     * Samples the service time of a job of the category.
+     * @return The service time.
+     */
+    public double sampleServiceTime()
+    {
+        return this.serviceSamples.next();
+    }
+
+    /**
+     * Discards the buffered samples not consumed yet and brings the generators to the state that follows the
+     * consumed ones, so that they can be used directly.
+     */
+    public void drainBuffers()
+    {
+        this.arrivalSamples.sync();
+        this.serviceSamples.sync();
+    }
+
+    /**
+     * Creates a copy of the category with independent random generators, for a parallel replication.
+     * The generators are seeded from the seeds of the category and the index of the stream, so every replication
+     * is reproducible and does not depend on the state left by the other ones.
+     * @param stream The index of the stream, usually the index of the run.
+     * @return A new category with the same parameters and empty stats.
+     */
+    public Category forStream(int stream)
+    {
+        return new Category(
+                this.id,
+                this.lambdaArrival,
+                this.lambdaService,
+                this.seedArrival,
+                this.seedService,
+                new RandomGenerator(RandomGenerator.substreamSeed(this.seedArrival, stream)),
+                new RandomGenerator(RandomGenerator.substreamSeed(this.seedService, stream)),
+                this.sampler
+        );
+    }
+
     /**
      * Add data to calculate statistics over the simulation.
      * @param queuingTime Queuing time for a job of the current category. It's the amount of time that the jobs waits
@@ -117,6 +192,33 @@ public class Category
         return this.lambdaService;
     }
 
+    /**
+     * Mean inter-arrival time getter.
+     * @return 1 / lambda arrival.
+     */
+    public double getMeanArrival()
+    {
+        return this.meanArrival;
+    }
+
+    /**
+     * Mean service time getter.
+     * @return 1 / lambda service.
+     */
+    public double getMeanService()
+    {
+        return this.meanService;
+    }
+
+    /**
+     * Exponential sampler getter.
+     * @return The method used to sample the exponential distribution.
+     */
+    public ExponentialSampler getSampler()
+    {
+        return this.sampler;
+    }
+
     /**
      * Seed arrival getter.
      * @return Seed arrival.
@@ -137,6 +239,8 @@ public class Category
 
     /**
      * Arrival generator getter.
+     * The generator runs ahead of the consumed inter-arrival times unless drainBuffers has been called since the
+     * last sample.
      * @return Arrival generator.
      */
     public RandomGenerator getArrivalGenerator()
@@ -146,6 +250,8 @@ public class Category
 
     /**
      * Service generator getter.
+     * The generator runs ahead of the consumed service times unless drainBuffers has been called since the last
+     * sample.
      * @return Service generator.
      */
     public RandomGenerator getServiceGenerator()
@@ -162,6 +268,11 @@ public class Category
         return this.id;
     }
 
+    /**
+     * Number of samples drawn by each refill of the sample buffers.
+     */
+    private static final int SAMPLE_BUFFER_SIZE = 256;
+
     /**
      * Lambda used for generating inter-arrival times with exponential distribution of lambda.
      */
@@ -172,6 +283,16 @@ public class Category
      */
     private final double lambdaService;
 
+    /**
+     * Mean inter-arrival time, 1 / lambda arrival.
+     */
+    private final double meanArrival;
+
+    /**
+     * Mean service time, 1 / lambda service.
+     */
+    private final double meanService;
+
     /**
      * Seed used for generating inter-arrival times.
      */
@@ -192,6 +313,21 @@ public class Category
      */
     private final RandomGenerator serviceGenerator;
 
+    /**
+     * Method used to sample the exponential distribution.
+     */
+    private final ExponentialSampler sampler;
+
+    /**
+     * Buffer of inter-arrival times.
+     */
+    private final SampleBuffer arrivalSamples;
+
+    /**
+     * Buffer of service times.
+     */
+    private final SampleBuffer serviceSamples;
+
     /**
      * Identifier of the category
      */
@@ -74,6 +74,32 @@ public class ProjectConfig
         stat.n++;
     }
 
+    /**
+     * Adds the stats collected by another configuration of the same simulation, typically a parallel replication.
+     * @param other The configuration to merge.
+     * @throws IllegalArgumentException If the configuration has a different number of categories.
+     */
+    public void merge(ProjectConfig other) throws IllegalArgumentException
+    {
+        if(other.hCategoriesNumber != this.hCategoriesNumber) throw new IllegalArgumentException("Incompatible configuration");
+
+        this.eta += other.eta;
+        this.nRun += other.nRun;
+        this.jobAqt += other.jobAqt;
+        this.processedJobs += other.processedJobs;
+
+        for(int i = 0; i < this.hCategoriesNumber; i++)
+        {
+            CategoryStats stat = this.categoryStats.get(i);
+            CategoryStats otherStat = other.categoryStats.get(i);
+
+            stat.avgQueuingTimeSum += otherStat.avgQueuingTimeSum;
+            stat.avgServiceTimeSum += otherStat.avgServiceTimeSum;
+            stat.processedEntities += otherStat.processedEntities;
+            stat.n += otherStat.n;
+        }
+    }
+
     /**
      * Clears the stats.
      */
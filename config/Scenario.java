@@ -0,0 +1,242 @@
+package config;
+
+import utils.ExponentialSampler;
+import utils.RandomGenerator;
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents the input of a simulation: the configuration line and the parameters of the categories.
+ * Scenarios are read from memory-mapped files, in the text format (a CSV line with K, H, N, R and P followed by one
+ * line per category with lambda arrival, lambda service, seed arrival and seed service) or in the binary format,
+ * recognized by its magic number. The binary format is a header of HEADER_SIZE bytes (magic number, version, K, H, N,
+ * R, P as ints) followed by one record of CATEGORY_SIZE bytes per category (lambda arrival and lambda service as
+ * doubles, seed arrival and seed service as ints), all in little-endian order.
+ * Usage: Scenario input_file binary_file, to convert a scenario to the binary format.
+ */
+public class Scenario
+{
+    /**
+     * Magic number at the beginning of a binary scenario, "JSCN" in ASCII.
+     */
+    public static final int MAGIC = 0x4E43534A;
+
+    /**
+     * Version of the binary format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Size of the header of the binary format in bytes.
+     */
+    public static final int HEADER_SIZE = 28;
+
+    /**
+     * Size of a category in the binary format in bytes.
+     */
+    public static final int CATEGORY_SIZE = 24;
+
+    /**
+     * Creates a scenario.
+     * @param config The configuration of the simulation.
+     * @param lambdaArrivals The lambda of the arrivals of each category.
+     * @param lambdaServices The lambda of the service times of each category.
+     * @param seedArrivals The seed of the arrivals of each category.
+     * @param seedServices The seed of the service times of each category.
+     */
+    public Scenario(ProjectConfig config, double[] lambdaArrivals, double[] lambdaServices, int[] seedArrivals, int[] seedServices)
+    {
+        this.config = config;
+        this.lambdaArrivals = lambdaArrivals;
+        this.lambdaServices = lambdaServices;
+        this.seedArrivals = seedArrivals;
+        this.seedServices = seedServices;
+    }
+
+    /**
+     * Reads a scenario in the text or in the binary format.
+     * @param path The path of the file.
+     * @return The scenario.
+     * @throws IOException If there are errors while reading the file or it is not valid.
+     */
+    public static Scenario read(Path path) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            MappedByteBuffer input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            input.order(ByteOrder.LITTLE_ENDIAN);
+
+            if(input.remaining() >= Integer.BYTES && input.getInt(0) == MAGIC)
+            {
+                return readBinary(input);
+            }
+
+            return new ScenarioParser(input).parse();
+        }
+    }
+
+    /**
+     * Writes the scenario in the binary format, replacing the file if it exists.
+     * @param path The path of the file.
+     * @throws IOException If there are errors while writing the file.
+     */
+    public void writeBinary(Path path) throws IOException
+    {
+        int h = this.lambdaArrivals.length;
+        ByteBuffer output = ByteBuffer.allocate(HEADER_SIZE + h * CATEGORY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        output
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(this.config.getServerNumber())
+                .putInt(h)
+                .putInt(this.config.getTotalJobs())
+                .putInt(this.config.getSimulationRepetitions())
+                .putInt(this.config.getSchedulingPolicy());
+
+        for(int i = 0; i < h; i++)
+        {
+            output
+                    .putDouble(this.lambdaArrivals[i])
+                    .putDouble(this.lambdaServices[i])
+                    .putInt(this.seedArrivals[i])
+                    .putInt(this.seedServices[i]);
+        }
+
+        output.flip();
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            while(output.hasRemaining())
+            {
+                channel.write(output);
+            }
+        }
+    }
+
+    /**
+     * Getter for the configuration.
+     * @return The configuration of the simulation.
+     */
+    public ProjectConfig getConfig()
+    {
+        return this.config;
+    }
+
+    /**
+     * Creates the categories of the scenario, each one with its own random generators.
+     * @param sampler Method used to sample the exponential distribution.
+     * @return The categories, indexed by id.
+     */
+    public List<Category> createCategories(ExponentialSampler sampler)
+    {
+        List<Category> categories = new ArrayList<>(this.lambdaArrivals.length);
+
+        for(int i = 0; i < this.lambdaArrivals.length; i++)
+        {
+            categories.add(new Category(
+                    i,
+                    this.lambdaArrivals[i],
+                    this.lambdaServices[i],
+                    this.seedArrivals[i],
+                    this.seedServices[i],
+                    new RandomGenerator(this.seedArrivals[i]),
+                    new RandomGenerator(this.seedServices[i]),
+                    sampler
+            ));
+        }
+
+        return categories;
+    }
+
+    /**
+     * Reads a scenario in the binary format.
+     * @param input The bytes of the file, in little-endian order.
+     * @return The scenario.
+     * @throws IOException If the file is not valid.
+     */
+    private static Scenario readBinary(ByteBuffer input) throws IOException
+    {
+        if(input.remaining() < HEADER_SIZE) throw new IOException("Truncated scenario header");
+
+        input.getInt();
+
+        if(input.getInt() != VERSION) throw new IOException("Unsupported scenario version");
+
+        int k = input.getInt();
+        int h = input.getInt();
+        int n = input.getInt();
+        int r = input.getInt();
+        int p = input.getInt();
+
+        if(h < 0 || input.remaining() < (long)h * CATEGORY_SIZE) throw new IOException("Truncated scenario categories");
+
+        double[] lambdaArrivals = new double[h];
+        double[] lambdaServices = new double[h];
+        int[] seedArrivals = new int[h];
+        int[] seedServices = new int[h];
+
+        for(int i = 0; i < h; i++)
+        {
+            lambdaArrivals[i] = input.getDouble();
+            lambdaServices[i] = input.getDouble();
+            seedArrivals[i] = input.getInt();
+            seedServices[i] = input.getInt();
+        }
+
+        return new Scenario(new ProjectConfig(k, h, n, r, p), lambdaArrivals, lambdaServices, seedArrivals, seedServices);
+    }
+
+    /**
+     * Configuration of the simulation.
+     */
+    private final ProjectConfig config;
+
+    /**
+     * Lambda of the arrivals of each category.
+     */
+    private final double[] lambdaArrivals;
+
+    /**
+     * Lambda of the service times of each category.
+     */
+    private final double[] lambdaServices;
+
+    /**
+     * Seed of the arrivals of each category.
+     */
+    private final int[] seedArrivals;
+
+    /**
+     * Seed of the service times of each category.
+     */
+    private final int[] seedServices;
+
+    public static void main(String[] args)
+    {
+        if(args.length != 2)
+        {
+            System.out.println("Usage: Scenario input_file binary_file");
+            return;
+        }
+
+        try
+        {
+            read(Path.of(args[0])).writeBinary(Path.of(args[1]));
+        }
+        catch(IOException e)
+        {
+            System.out.println("IOException " + e.getMessage());
+        }
+    }
+}
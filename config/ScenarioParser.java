@@ -0,0 +1,328 @@
+package config;
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parser of the text format of the scenarios, working directly on the bytes of the input.
+ * Fields are separated by commas and lines by LF or CRLF. Integers are parsed digit by digit. Decimals are parsed
+ * exactly when the digits and the exponent fit the range in which a single floating point operation is correctly
+ * rounded; the other numbers fall back to Double.parseDouble, so the values are always identical to the ones of
+ * Double.parseDouble.
+ */
+class ScenarioParser
+{
+    /**
+     * Creates a parser.
+     * @param input The bytes of the input, from its position to its limit.
+     */
+    ScenarioParser(ByteBuffer input)
+    {
+        this.input = input;
+        this.position = input.position();
+        this.limit = input.limit();
+        this.token = new byte[64];
+    }
+
+    /**
+     * Parses the configuration line and the category lines of a scenario.
+     * @return The scenario.
+     * @throws IOException If the input is not valid.
+     */
+    Scenario parse() throws IOException
+    {
+        int k = this.nextInt(',');
+        int h = this.nextInt(',');
+        int n = this.nextInt(',');
+        int r = this.nextInt(',');
+        int p = this.nextInt('\n');
+
+        if(h < 0) throw new IOException("Invalid number of categories " + h);
+
+        double[] lambdaArrivals = new double[h];
+        double[] lambdaServices = new double[h];
+        int[] seedArrivals = new int[h];
+        int[] seedServices = new int[h];
+
+        for(int i = 0; i < h; i++)
+        {
+            if(this.position >= this.limit) throw new IOException("Missing category " + i);
+
+            lambdaArrivals[i] = this.nextDouble(',');
+            lambdaServices[i] = this.nextDouble(',');
+            seedArrivals[i] = this.nextInt(',');
+            seedServices[i] = this.nextInt('\n');
+        }
+
+        return new Scenario(new ProjectConfig(k, h, n, r, p), lambdaArrivals, lambdaServices, seedArrivals, seedServices);
+    }
+
+    /**
+     * Parses an integer field.
+     * @param separator The separator that ends the field, '\n' for the last field of a line.
+     * @return The integer.
+     * @throws IOException If the field is not a valid integer.
+     */
+    private int nextInt(char separator) throws IOException
+    {
+        int end = this.fieldEnd(separator);
+        int i = this.position;
+        boolean negative = i < end && this.input.get(i) == '-';
+
+        if(negative || (i < end && this.input.get(i) == '+'))
+        {
+            i++;
+        }
+
+        if(i == end) throw this.invalid(end);
+
+        // Accumulating as a negative number, whose range includes Integer.MIN_VALUE.
+        long value = 0;
+
+        for(; i < end; i++)
+        {
+            int digit = this.input.get(i) - '0';
+
+            if(digit < 0 || digit > 9) throw this.invalid(end);
+
+            value = value * 10 - digit;
+
+            if(value < Integer.MIN_VALUE) throw this.invalid(end);
+        }
+
+        if(!negative && value == Integer.MIN_VALUE) throw this.invalid(end);
+
+        this.skip(end);
+
+        return (int)(negative ? value : -value);
+    }
+
+    /**
+     * Parses a decimal field.
+     * @param separator The separator that ends the field, '\n' for the last field of a line.
+     * @return The decimal.
+     * @throws IOException If the field is not a valid decimal.
+     */
+    private double nextDouble(char separator) throws IOException
+    {
+        int end = this.fieldEnd(separator);
+        int i = this.position;
+        boolean negative = i < end && this.input.get(i) == '-';
+
+        if(negative || (i < end && this.input.get(i) == '+'))
+        {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = i < end;
+        boolean point = false;
+        boolean hasDigits = false;
+
+        // Collecting the significant digits and the position of the decimal point.
+        for(; i < end && exact; i++)
+        {
+            byte c = this.input.get(i);
+
+            if(c >= '0' && c <= '9')
+            {
+                hasDigits = true;
+
+                if(mantissa != 0 || c != '0')
+                {
+                    digits++;
+                }
+
+                if(digits > MAX_EXACT_DIGITS)
+                {
+                    exact = false;
+                }
+
+                mantissa = mantissa * 10 + (c - '0');
+
+                if(point)
+                {
+                    exponent--;
+                }
+            }
+            else if(c == '.' && !point)
+            {
+                point = true;
+            }
+            else if((c == 'e' || c == 'E') && hasDigits && i + 1 < end)
+            {
+                int e = 0;
+                int j = i + 1;
+                boolean negativeExponent = this.input.get(j) == '-';
+
+                if(negativeExponent || this.input.get(j) == '+')
+                {
+                    j++;
+                }
+
+                exact = j < end && end - j <= 3;
+
+                for(; j < end && exact; j++)
+                {
+                    int value = this.input.get(j) - '0';
+
+                    exact = value >= 0 && value <= 9;
+                    e = e * 10 + value;
+                }
+
+                exponent += negativeExponent ? -e : e;
+                i = end;
+            }
+            else
+            {
+                exact = false;
+            }
+        }
+
+        double value;
+
+        if(exact && hasDigits && mantissa <= MAX_EXACT_MANTISSA && exponent >= -MAX_EXACT_EXPONENT && exponent <= MAX_EXACT_EXPONENT)
+        {
+            // Both the mantissa and the power of ten are exact doubles, so a single operation is correctly rounded.
+            value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            value = negative ? -value : value;
+        }
+        else
+        {
+            value = this.parseToken(end);
+        }
+
+        this.skip(end);
+
+        return value;
+    }
+
+    /**
+     * Parses a decimal field with Double.parseDouble.
+     * @param end The end of the field.
+     * @return The decimal.
+     * @throws IOException If the field is not a valid decimal.
+     */
+    private double parseToken(int end) throws IOException
+    {
+        int length = end - this.position;
+
+        if(length > this.token.length)
+        {
+            this.token = new byte[length];
+        }
+
+        this.input.get(this.position, this.token, 0, length);
+
+        try
+        {
+            return Double.parseDouble(new String(this.token, 0, length, StandardCharsets.US_ASCII));
+        }
+        catch(NumberFormatException e)
+        {
+            throw this.invalid(end);
+        }
+    }
+
+    /**
+     * Finds the end of the current field.
+     * @param separator The separator that ends the field, '\n' for the last field of a line.
+     * @return The position after the last byte of the field.
+     * @throws IOException If the separator is missing.
+     */
+    private int fieldEnd(char separator) throws IOException
+    {
+        int i = this.position;
+
+        while(i < this.limit)
+        {
+            byte c = this.input.get(i);
+
+            if(c == separator || (separator == '\n' && c == '\r')) break;
+            if(c == '\n' || c == '\r') throw this.invalid(i);
+
+            i++;
+        }
+
+        // The last line may lack the line separator.
+        if(i == this.limit && separator != '\n') throw this.invalid(i);
+
+        return i;
+    }
+
+    /**
+     * Moves after the separator that ends a field, and after the whole line separator at the end of a line.
+     * @param end The end of the field.
+     */
+    private void skip(int end)
+    {
+        this.position = end + 1;
+
+        if(end < this.limit && this.input.get(end) == '\r' && this.position < this.limit && this.input.get(this.position) == '\n')
+        {
+            this.position++;
+        }
+    }
+
+    /**
+     * Creates the exception thrown for an invalid field.
+     * @param end The end of the field.
+     * @return The exception.
+     */
+    private IOException invalid(int end)
+    {
+        int length = Math.min(end - this.position, 64);
+        byte[] field = new byte[Math.max(length, 0)];
+
+        this.input.get(this.position, field, 0, field.length);
+
+        return new IOException("Invalid field \"" + new String(field, StandardCharsets.US_ASCII) + "\" at byte " + this.position);
+    }
+
+    /**
+     * Maximum number of significant digits of an exact mantissa.
+     */
+    private static final int MAX_EXACT_DIGITS = 16;
+
+    /**
+     * Largest mantissa that is an exact double, 2^53.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Largest power of ten that is an exact double.
+     */
+    private static final int MAX_EXACT_EXPONENT = 22;
+
+    /**
+     * Powers of ten that are exact doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * The bytes of the input.
+     */
+    private final ByteBuffer input;
+
+    /**
+     * The end of the input.
+     */
+    private final int limit;
+
+    /**
+     * Position of the next field.
+     */
+    private int position;
+
+    /**
+     * Bytes of the last field parsed with Double.parseDouble, reused.
+     */
+    private byte[] token;
+}
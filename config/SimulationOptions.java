@@ -0,0 +1,385 @@
+package config;
+
+import events.queue.EventQueueType;
+
+import scheduling.ServerDiscipline;
+
+import simulation.SimulationEngine;
+
+import utils.ExponentialSampler;
+
+/**
+ * This class represents the options passed to the simulator from the command line.
+ * Usage: Simulator [--event-queue=heap|indexed|calendar] [--choices=d] [--dispatch-seed=seed] [--size-aware]
+ *                  [--discipline=fifo|sjf] [--parallel[=threads]]
+ *                  [--prefetch-arrivals] [--engine=event|lindley] [--merged-arrivals]
+ *                  [--sampler=legacy|ziggurat] [--trace=trace_file]
+ *                  [--batch[=threads]] [--output-dir=directory] input_file
+ * With --batch the input is a directory or a glob pattern, and every matching scenario is simulated.
+ */
+public class SimulationOptions
+{
+    /**
+     * Creates the default options.
+     * @param inputPath The path of the input file.
+     */
+    public SimulationOptions(String inputPath)
+    {
+        this.inputPath = inputPath;
+        this.eventQueueType = EventQueueType.HEAP;
+        this.choices = 2;
+        this.dispatchSeed = 0;
+        this.sizeAware = false;
+        this.discipline = ServerDiscipline.FIFO;
+        this.parallelism = 0;
+        this.prefetchArrivals = false;
+        this.engine = SimulationEngine.EVENT;
+        this.mergedArrivals = false;
+        this.sampler = ExponentialSampler.LEGACY;
+        this.tracePath = null;
+        this.batchThreads = 0;
+        this.outputDir = null;
+    }
+
+    /**
+     * Parses the command line arguments.
+     * @param args The command line arguments.
+     * @return The parsed options.
+     * @throws IllegalArgumentException If an argument is not valid or the input file is missing.
+     */
+    public static SimulationOptions parse(String[] args) throws IllegalArgumentException
+    {
+        SimulationOptions options = new SimulationOptions(null);
+
+        for(String arg: args)
+        {
+            if(arg.startsWith("--"))
+            {
+                int separator = arg.indexOf('=');
+                String name = separator == -1 ? arg.substring(2) : arg.substring(2, separator);
+                String value = separator == -1 ? "" : arg.substring(separator + 1);
+
+                options.set(name, value);
+            }
+            else
+            {
+                options.inputPath = arg;
+            }
+        }
+
+        if(options.inputPath == null) throw new IllegalArgumentException("Invalid parameter");
+
+        return options;
+    }
+
+    /**
+     * Sets an option.
+     * @param name The name of the option, without the leading dashes.
+     * @param value The value of the option, empty for flags.
+     * @throws IllegalArgumentException If the option is unknown or its value is not valid.
+     */
+    protected void set(String name, String value) throws IllegalArgumentException
+    {
+        switch(name)
+        {
+            case "event-queue":
+                this.eventQueueType = EventQueueType.fromName(value);
+                break;
+            case "choices":
+                this.choices = Integer.parseInt(value);
+                break;
+            case "dispatch-seed":
+                this.dispatchSeed = Long.parseLong(value);
+                break;
+            case "size-aware":
+                this.sizeAware = true;
+                break;
+            case "discipline":
+                this.discipline = ServerDiscipline.fromName(value);
+                break;
+            case "parallel":
+                this.parallelism = value.isEmpty() ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value);
+                if(this.parallelism < 1) throw new IllegalArgumentException("Invalid number of threads " + value);
+                break;
+            case "prefetch-arrivals":
+                this.prefetchArrivals = true;
+                break;
+            case "engine":
+                this.engine = SimulationEngine.fromName(value);
+                break;
+            case "merged-arrivals":
+                this.mergedArrivals = true;
+                break;
+            case "sampler":
+                this.sampler = ExponentialSampler.fromName(value);
+                break;
+            case "trace":
+                if(value.isEmpty()) throw new IllegalArgumentException("Missing trace file");
+                this.tracePath = value;
+                break;
+            case "batch":
+                this.batchThreads = value.isEmpty() ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value);
+                if(this.batchThreads < 1) throw new IllegalArgumentException("Invalid number of threads " + value);
+                break;
+            case "output-dir":
+                if(value.isEmpty()) throw new IllegalArgumentException("Missing output directory");
+                this.outputDir = value;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    /**
+     * Creates a copy of the options for another input file.
+     * @param inputPath The path of the input file.
+     * @return The new options.
+     */
+    public SimulationOptions forInput(String inputPath)
+    {
+        SimulationOptions options = new SimulationOptions(inputPath);
+
+        options.eventQueueType = this.eventQueueType;
+        options.choices = this.choices;
+        options.dispatchSeed = this.dispatchSeed;
+        options.sizeAware = this.sizeAware;
+        options.discipline = this.discipline;
+        options.parallelism = this.parallelism;
+        options.prefetchArrivals = this.prefetchArrivals;
+        options.engine = this.engine;
+        options.mergedArrivals = this.mergedArrivals;
+        options.sampler = this.sampler;
+        options.tracePath = this.tracePath;
+        options.batchThreads = this.batchThreads;
+        options.outputDir = this.outputDir;
+
+        return options;
+    }
+
+    /**
+     * Getter for the path of the input file.
+     * @return The path of the input file.
+     */
+    public String getInputPath()
+    {
+        return this.inputPath;
+    }
+
+    /**
+     * Getter for the event queue implementation.
+     * @return The event queue implementation.
+     */
+    public EventQueueType getEventQueueType()
+    {
+        return this.eventQueueType;
+    }
+
+    /**
+     * Getter for the number of servers sampled by the power-of-d-choices policy.
+     * @return The number of choices (d).
+     */
+    public int getChoices()
+    {
+        return this.choices;
+    }
+
+    /**
+     * Getter for the seed of the random generator used by randomized scheduling policies.
+     * @return The dispatch seed.
+     */
+    public long getDispatchSeed()
+    {
+        return this.dispatchSeed;
+    }
+
+    /**
+     * Checks if service times are sampled when jobs arrive, instead of when they start executing.
+     * Size-aware policies and disciplines need it, and it changes the order in which samples are drawn.
+     * @return True if service times are sampled at arrival.
+     */
+    public boolean isSizeAware()
+    {
+        return this.sizeAware || this.discipline != ServerDiscipline.FIFO;
+    }
+
+    /**
+     * Getter for the queue discipline of the servers.
+     * @return The queue discipline.
+     */
+    public ServerDiscipline getDiscipline()
+    {
+        return this.discipline;
+    }
+
+    /**
+     * Checks if the runs are executed as independent parallel replications.
+     * @return True if the runs are executed in parallel.
+     */
+    public boolean isParallel()
+    {
+        return this.parallelism > 0;
+    }
+
+    /**
+     * Getter for the number of threads that execute the runs in parallel.
+     * @return The number of threads, 0 if the runs are executed sequentially.
+     */
+    public int getParallelism()
+    {
+        return this.parallelism;
+    }
+
+    /**
+     * Checks if the arrival times are generated ahead of time by worker threads.
+     * @return True if the arrivals are prefetched.
+     */
+    public boolean isPrefetchArrivals()
+    {
+        return this.prefetchArrivals;
+    }
+
+    /**
+     * Getter for the engine that executes the runs.
+     * @return The engine.
+     */
+    public SimulationEngine getEngine()
+    {
+        return this.engine;
+    }
+
+    /**
+     * Checks if the arrivals of all the categories are drawn from a single merged Poisson process.
+     * The results are statistically equivalent, but not identical, to the ones of the separate processes. When it is
+     * set, the arrivals are not prefetched.
+     * @return True if the arrivals are merged.
+     */
+    public boolean isMergedArrivals()
+    {
+        return this.mergedArrivals;
+    }
+
+    /**
+     * Getter for the method used to sample the exponential distribution.
+     * @return The exponential sampler.
+     */
+    public ExponentialSampler getSampler()
+    {
+        return this.sampler;
+    }
+
+    /**
+     * Getter for the path of the file where the events of the runs are traced.
+     * @return The path of the trace file, null if tracing is disabled.
+     */
+    public String getTracePath()
+    {
+        return this.tracePath;
+    }
+
+    /**
+     * Checks if the input is a directory or a glob pattern of scenarios to simulate in batch.
+     * @return True if the simulator runs in batch mode.
+     */
+    public boolean isBatch()
+    {
+        return this.batchThreads > 0;
+    }
+
+    /**
+     * Getter for the number of threads that simulate the scenarios of a batch.
+     * @return The number of threads, 0 if the simulator does not run in batch mode.
+     */
+    public int getBatchThreads()
+    {
+        return this.batchThreads;
+    }
+
+    /**
+     * Getter for the directory where the outputs of a batch are written.
+     * @return The output directory, null to write each output next to its input.
+     */
+    public String getOutputDir()
+    {
+        return this.outputDir;
+    }
+
+    /**
+     * To string method.
+     * @return A string representation of the object.
+     */
+    public String toString()
+    {
+        return String.format("%s[inputPath=%s, eventQueueType=%s, choices=%d, dispatchSeed=%d, sizeAware=%b, discipline=%s, parallelism=%d, prefetchArrivals=%b, engine=%s, mergedArrivals=%b, sampler=%s, tracePath=%s, batchThreads=%d, outputDir=%s]",
+                getClass().getName(), this.inputPath, this.eventQueueType, this.choices, this.dispatchSeed, this.sizeAware, this.discipline, this.parallelism, this.prefetchArrivals, this.engine, this.mergedArrivals, this.sampler, this.tracePath, this.batchThreads, this.outputDir);
+    }
+
+    /**
+     * The path of the input file.
+     */
+    private String inputPath;
+
+    /**
+     * The event queue implementation.
+     */
+    private EventQueueType eventQueueType;
+
+    /**
+     * The number of servers sampled by the power-of-d-choices policy.
+     */
+    private int choices;
+
+    /**
+     * The seed of the random generator used by randomized scheduling policies.
+     */
+    private long dispatchSeed;
+
+    /**
+     * If service times are sampled when jobs arrive.
+     */
+    private boolean sizeAware;
+
+    /**
+     * The queue discipline of the servers.
+     */
+    private ServerDiscipline discipline;
+
+    /**
+     * The number of threads that execute the runs in parallel, 0 if the runs are executed sequentially.
+     */
+    private int parallelism;
+
+    /**
+     * If the arrival times are generated ahead of time by worker threads.
+     */
+    private boolean prefetchArrivals;
+
+    /**
+     * The engine that executes the runs.
+     */
+    private SimulationEngine engine;
+
+    /**
+     * If the arrivals of all the categories are drawn from a single merged process.
+     */
+    private boolean mergedArrivals;
+
+    /**
+     * The method used to sample the exponential distribution.
+     */
+    private ExponentialSampler sampler;
+
+    /**
+     * The path of the trace file, null if tracing is disabled.
+     */
+    private String tracePath;
+
+    /**
+     * The number of threads that simulate the scenarios of a batch, 0 if the simulator does not run in batch mode.
+     */
+    private int batchThreads;
+
+    /**
+     * The directory where the outputs of a batch are written, null to write each output next to its input.
+     */
+    private String outputDir;
+}
@@ -0,0 +1,230 @@
+package events;
+
+import config.Category;
+
+import utils.ExponentialSampler;
+import utils.RandomGenerator;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Class that represents the arrival timeline of a category, generated ahead of time.
+ * Arrival times depend only on the arrival generator of the category, so they are computed in chunks by a worker
+ * thread while the simulation consumes the previous chunk. The worker draws from a copy of the generator, with the
+ * same arithmetic of the event handler, so the timeline is bit-identical to the one generated one event at a time.
+ * When the stream is closed, the generator of the category is brought to the state that follows the arrivals actually
+ * consumed, starting from the state saved at the beginning of the current chunk, as if the stream had not been used.
+ */
+public class ArrivalStream
+{
+    /**
+     * Creates a stream and starts generating its first chunk.
+     * @param category The category whose arrivals are generated.
+     * @param limit The maximum number of arrivals that can be consumed.
+     * @param expected The expected number of arrivals consumed, used to size the first chunk.
+     * @param executor The executor that generates the chunks.
+     */
+    public ArrivalStream(Category category, long limit, long expected, ExecutorService executor)
+    {
+        this.category = category;
+        this.category.drainBuffers();
+        this.generator = category.getArrivalGenerator().copy();
+        this.lambda = category.getLambdaArrival();
+        this.mean = category.getMeanArrival();
+        this.sampler = category.getSampler();
+        this.limit = limit;
+        this.executor = executor;
+
+        this.chunk = new double[0];
+        this.position = 0;
+        this.chunkSize = (int)Math.max(MIN_CHUNK_SIZE, Math.min(expected, MAX_CHUNK_SIZE));
+        this.generated = 0;
+        this.lastTime = 0;
+        this.chunkStart = category.getArrivalGenerator().copy();
+        this.pendingStart = null;
+
+        this.pending = this.submit();
+    }
+
+    /**
+     * Returns the next arrival time of the category.
+     * @return The next arrival time.
+     * @throws IllegalStateException If the limit of the stream has been reached or the worker failed.
+     */
+    public double next() throws IllegalStateException
+    {
+        if(this.position == this.chunk.length)
+        {
+            if(this.pending == null) throw new IllegalStateException("Arrival stream exhausted");
+
+            try
+            {
+                this.chunk = this.pending.get();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for arrivals", e);
+            }
+            catch(ExecutionException e)
+            {
+                throw new IllegalStateException("Arrival generation failed", e.getCause());
+            }
+
+            this.position = 0;
+            this.chunkStart = this.pendingStart;
+
+            // Generating the following chunk while this one is consumed.
+            this.pending = this.submit();
+        }
+
+        return this.chunk[this.position++];
+    }
+
+    /**
+     * Stops generating arrivals and advances the generator of the category past the consumed arrivals.
+     */
+    public void close()
+    {
+        if(this.pending != null)
+        {
+            this.pending.cancel(false);
+            this.pending = null;
+        }
+
+        this.sampler.skip(this.chunkStart, this.position);
+        this.category.drainBuffers();
+        this.category.getArrivalGenerator().setState(this.chunkStart);
+    }
+
+    /**
+     * Submits the generation of the next chunk.
+     * Only one chunk is pending at a time, so the chunks are generated in order and the generator is never used by
+     * two threads at once.
+     * @return The pending chunk, null if the limit has been reached.
+     */
+    private Future<double[]> submit()
+    {
+        int size = (int)Math.min(this.chunkSize, this.limit - this.generated);
+
+        if(size <= 0) return null;
+
+        this.generated += size;
+        this.chunkSize = Math.min(this.chunkSize * 2, MAX_CHUNK_SIZE);
+
+        return this.executor.submit(() -> this.generate(size));
+    }
+
+    /**
+     * Generates a chunk of arrival times.
+     * @param size The number of arrivals.
+     * @return The arrival times.
+     */
+    private double[] generate(int size)
+    {
+        double[] times = new double[size];
+        double time = this.lastTime;
+
+        this.pendingStart = this.generator.copy();
+
+        this.sampler.fill(this.generator, times, 0, size, this.lambda, this.mean);
+
+        // Each arrival is generated from the previous one, as the event handler does.
+        for(int i = 0; i < size; i++)
+        {
+            time = time + times[i];
+            times[i] = time;
+        }
+
+        this.lastTime = time;
+
+        return times;
+    }
+
+    /**
+     * Minimum size of a chunk.
+     */
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    /**
+     * Maximum size of a chunk.
+     */
+    private static final int MAX_CHUNK_SIZE = 16384;
+
+    /**
+     * The category whose arrivals are generated.
+     */
+    private final Category category;
+
+    /**
+     * Copy of the arrival generator, used only by the worker.
+     */
+    private final RandomGenerator generator;
+
+    /**
+     * Lambda of the inter-arrival times.
+     */
+    private final double lambda;
+
+    /**
+     * Mean of the inter-arrival times.
+     */
+    private final double mean;
+
+    /**
+     * Method used to sample the inter-arrival times.
+     */
+    private final ExponentialSampler sampler;
+
+    /**
+     * The maximum number of arrivals that can be consumed.
+     */
+    private final long limit;
+
+    /**
+     * The executor that generates the chunks.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The chunk being consumed.
+     */
+    private double[] chunk;
+
+    /**
+     * Position of the next arrival in the chunk.
+     */
+    private int position;
+
+    /**
+     * The chunk being generated, null if the limit has been reached.
+     */
+    private Future<double[]> pending;
+
+    /**
+     * Size of the next chunk, doubled after every chunk.
+     */
+    private int chunkSize;
+
+    /**
+     * Number of arrivals submitted for generation.
+     */
+    private long generated;
+
+    /**
+     * State of the generator at the beginning of the chunk being consumed.
+     */
+    private RandomGenerator chunkStart;
+
+    /**
+     * State of the generator at the beginning of the last generated chunk, written by the worker.
+     */
+    private RandomGenerator pendingStart;
+
+    /**
+     * Last arrival time generated by the worker.
+     */
+    private double lastTime;
+}
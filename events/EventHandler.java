@@ -2,56 +2,171 @@ package events;
 
 import config.Category;
 
-import events.entries.ArrivalEntry;
-import events.entries.Entry;
-import events.entries.FinishEntry;
+import events.queue.EventQueue;
+import events.queue.EventQueueType;
 
-import java.util.PriorityQueue;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Class that handles event creation.
+ * Pending events are kept in an event queue with one slot per category and one slot per server: slots [0, H)
+ * are the arrivals of the categories, slots [H, H + K) are the finishes of the servers.
+ * Jobs are stored in a job table and referenced by their handle.
+ * Arrival times can be read from streams generated ahead of time by worker threads, in that case the handler must be
+ * closed at the end of the run.
+ * With a merged arrival process there is a single arrival slot, 0, for the next arrival of any category, and the
+ * finishes of the servers are slots [1, 1 + K).
  */
 public class EventHandler
 {
 
     /**
      * Constructor.
+     * @param categories The categories of the simulation, indexed by id.
+     * @param serverNumber The number of servers (K).
+     * @param jobs The table that stores the jobs.
+     * @param queueType The event queue implementation to use.
      */
-    public EventHandler()
+    public EventHandler(List<Category> categories, int serverNumber, JobTable jobs, EventQueueType queueType)
     {
-        this.entries = new PriorityQueue<>();
+        this(categories, serverNumber, jobs, queueType, null);
     }
 
     /**
-     * Generates a new arrival event (entry)
+     * Constructor that draws the arrivals of all the categories from a merged process.
+     * @param categories The categories of the simulation, indexed by id.
+     * @param serverNumber The number of servers (K).
+     * @param jobs The table that stores the jobs.
+     * @param queueType The event queue implementation to use.
+     * @param mergedArrivals The merged arrival process, null to draw the arrivals of each category separately.
+     */
+    public EventHandler(List<Category> categories, int serverNumber, JobTable jobs, EventQueueType queueType, MergedArrivalProcess mergedArrivals)
+    {
+        this.categories = categories;
+        this.categoriesNumber = categories.size();
+        this.arrivalSlots = mergedArrivals != null ? 1 : this.categoriesNumber;
+        this.jobs = jobs;
+        this.entries = queueType.create(this.arrivalSlots, serverNumber);
+        this.pendingFinishes = new int[serverNumber];
+        this.arrivalStreams = null;
+        this.mergedArrivals = mergedArrivals;
+        this.pendingCategory = -1;
+    }
+
+    /**
+     * Constructor that reads the arrival times from streams generated ahead of time.
+     * @param categories The categories of the simulation, indexed by id.
+     * @param serverNumber The number of servers (K).
+     * @param jobs The table that stores the jobs.
+     * @param queueType The event queue implementation to use.
+     * @param arrivalLimit The maximum number of arrival events generated for each category.
+     * @param executor The executor that generates the arrival streams.
+     */
+    public EventHandler(List<Category> categories, int serverNumber, JobTable jobs, EventQueueType queueType, long arrivalLimit, ExecutorService executor)
+    {
+        this(categories, serverNumber, jobs, queueType);
+
+        this.arrivalStreams = new ArrivalStream[this.categoriesNumber];
+
+        double lambdaSum = 0;
+
+        for(Category category: categories)
+        {
+            lambdaSum += category.getLambdaArrival();
+        }
+
+        // Sizing the first chunk of each stream on the share of arrivals of its category, with a small margin, so that
+        // most streams never need a second chunk and few unused arrivals are drawn.
+        for(int i = 0; i < this.categoriesNumber; i++)
+        {
+            Category category = categories.get(i);
+            long expected = (long)Math.ceil(arrivalLimit * category.getLambdaArrival() / lambdaSum * 1.1);
+
+            this.arrivalStreams[i] = new ArrivalStream(category, arrivalLimit, expected, executor);
+        }
+    }
+
+    /**
+     * Generates the first arrival events, at time 0.
+     */
+    public void initializeArrivals()
+    {
+        if(this.mergedArrivals != null)
+        {
+            this.generateArrivalEvent(this.categories.get(0), 0);
+            return;
+        }
+
+        for(Category catConfig: this.categories)
+        {
+            this.generateArrivalEvent(catConfig, 0);
+        }
+    }
+
+    /**
+     * Generates a new arrival event.
+     * With a merged arrival process the event is the next arrival of any category, and the given category is ignored.
      * @param catConfig The category of the job that the event represents.
-     * @param currentTime Current time.
-     * @return The generated arrival event.
+     * @param currentTime Current time. It must be the time of the previous arrival of the category, or 0.
+     * @return The time of the generated arrival event.
      */
-    public ArrivalEntry generateArrivalEvent(Category catConfig, double currentTime)
+    public double generateArrivalEvent(Category catConfig, double currentTime)
     {
-        ArrivalEntry entry = new ArrivalEntry(currentTime + catConfig.getArrivalGenerator().exponentialDistribution(catConfig.getLambdaArrival()), catConfig);
-        this.entries.add(entry);
+        if(this.mergedArrivals != null)
+        {
+            double key = currentTime + this.mergedArrivals.nextInterArrivalTime();
 
-        return entry;
+            this.pendingCategory = this.mergedArrivals.nextCategory();
+            this.entries.push(0, key);
+
+            return key;
+        }
+
+        double key = this.arrivalStreams != null
+                ? this.arrivalStreams[catConfig.getId()].next()
+                : currentTime + catConfig.sampleInterArrivalTime();
+        this.entries.push(catConfig.getId(), key);
+
+        return key;
     }
 
     /**
-     * Generates a new finish event (entry)
-     * @param linkedArrival The arrival entry linked to the same job.
+     * Samples the service time of a job and records it in the job table.
+     * By default service times are sampled when jobs start executing; calling this method at arrival makes the
+     * size of the job known to the scheduler and the policy.
+     * @param job The handle of the job.
+     * @return The sampled service time.
+     */
+    public double generateServiceTime(int job)
+    {
+        Category catConfig = this.categories.get(this.jobs.getCategory(job));
+        double serviceTime = catConfig.sampleServiceTime();
+
+        this.jobs.setServiceTime(job, serviceTime);
+
+        return serviceTime;
+    }
+
+    /**
+     * Generates a new finish event and records the start execution time of the job.
+     * The service time is sampled now, unless it has already been sampled at arrival.
+     * @param job The handle of the job that starts executing.
      * @param currentTime Current time.
-     * @param serverId The server that executed the job.
-     * @return The generated finish event.
+     * @param serverId The server that executes the job.
+     * @return The time of the generated finish event.
      */
-    public FinishEntry generateFinishEvent(ArrivalEntry linkedArrival, double currentTime, int serverId)
+    public double generateFinishEvent(int job, double currentTime, int serverId)
     {
-        Category catConfig = linkedArrival.getCategory();
-        double serviceTime = catConfig.getServiceGenerator().exponentialDistribution(catConfig.getLambdaService());
-        FinishEntry entry = new FinishEntry(currentTime + serviceTime, serverId, serviceTime, linkedArrival);
+        double serviceTime = this.jobs.hasServiceTime(job) ? this.jobs.getServiceTime(job) : this.generateServiceTime(job);
+        double key = currentTime + serviceTime;
+
+        this.jobs.setStartTime(job, currentTime);
 
-        this.entries.add(entry);
+        this.pendingFinishes[serverId] = job;
+        this.entries.push(this.arrivalSlots + serverId, key);
 
-        return entry;
+        return key;
     }
 
     /**
@@ -64,16 +179,122 @@ public class EventHandler
     }
 
     /**
-     * Removes from the priority queue and returns the most recent event.
-     * @return The most recent event.
+     * Removes from the queue the most recent event.
+     * @return The slot of the most recent event.
+     */
+    public int remove()
+    {
+        return this.entries.poll();
+    }
+
+    /**
+     * Checks if a slot is an arrival slot.
+     * @param slot The slot of an event.
+     * @return True if the slot is the arrival of a category, false if it is the finish of a server.
+     */
+    public boolean isArrival(int slot)
+    {
+        return slot < this.arrivalSlots;
+    }
+
+    /**
+     * Returns the time of the last event of a slot.
+     * @param slot The slot of an event.
+     * @return The time of the event.
+     */
+    public double getTime(int slot)
+    {
+        return this.entries.getKey(slot);
+    }
+
+    /**
+     * Returns the category of an arrival slot.
+     * @param slot The slot of an arrival event.
+     * @return The category of the arriving job.
+     */
+    public Category getCategory(int slot)
+    {
+        return this.categories.get(this.mergedArrivals != null ? this.pendingCategory : slot);
+    }
+
+    /**
+     * Returns the job of a finish slot.
+     * @param slot The slot of a finish event.
+     * @return The handle of the finishing job.
+     */
+    public int getFinishedJob(int slot)
+    {
+        return this.pendingFinishes[slot - this.arrivalSlots];
+    }
+
+    /**
+     * Stops the arrival streams, if any, leaving the arrival generators in the same state as if the arrivals had been
+     * generated one at a time.
      */
-    public Entry remove()
+    public void close()
     {
-        return this.entries.remove();
+        if(this.arrivalStreams != null)
+        {
+            for(ArrivalStream stream: this.arrivalStreams)
+            {
+                stream.close();
+            }
+
+            this.arrivalStreams = null;
+        }
     }
 
+    /**
+     * Returns the number of pending events.
+     * @return The number of pending events.
+     */
+    public int size()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * The categories of the simulation.
+     */
+    private final List<Category> categories;
+
+    /**
+     * The number of categories.
+     */
+    private final int categoriesNumber;
+
+    /**
+     * The number of arrival slots, which is also the first finish slot.
+     */
+    private final int arrivalSlots;
+
+    /**
+     * The table that stores the jobs.
+     */
+    private final JobTable jobs;
+
+    /**
+     * Handle of the job whose finish is pending on each server.
+     */
+    private final int[] pendingFinishes;
+
     /**
      * Temporary queue for handling entries.
      */
-    private final PriorityQueue<Entry> entries;
+    private final EventQueue entries;
+
+    /**
+     * Arrival times generated ahead of time, indexed by category, null if arrivals are generated one at a time.
+     */
+    private ArrivalStream[] arrivalStreams;
+
+    /**
+     * The merged arrival process, null if the arrivals of each category are drawn separately.
+     */
+    private final MergedArrivalProcess mergedArrivals;
+
+    /**
+     * Category of the pending arrival, with a merged arrival process.
+     */
+    private int pendingCategory;
 }
@@ -0,0 +1,288 @@
+package events;
+
+import java.util.Arrays;
+
+/**
+ * Table that stores the state of the jobs of a simulation as parallel primitive arrays.
+ * A job is addressed by an integer handle, which is valid from allocate() until release(). Released handles are
+ * reused, so the size of the table is bounded by the maximum number of jobs alive at the same time (arrived but
+ * not finished) and no memory is allocated once the table has grown to that size.
+ * The same table can be reused across runs by calling clear().
+ */
+public class JobTable
+{
+    /**
+     * Creates an empty job table.
+     * @param initialCapacity The number of jobs that can be stored before the table grows.
+     */
+    public JobTable(int initialCapacity)
+    {
+        int capacity = Math.max(initialCapacity, 1);
+
+        this.arrivalTimes = new double[capacity];
+        this.startTimes = new double[capacity];
+        this.serviceTimes = new double[capacity];
+        this.categories = new int[capacity];
+        this.servers = new int[capacity];
+        this.ids = new long[capacity];
+        this.freeHandles = new int[capacity];
+
+        this.clear();
+    }
+
+    /**
+     * Allocates a new job.
+     * @param categoryId The category of the job.
+     * @param arrivalTime The instant the job arrived.
+     * @return The handle of the job.
+     */
+    public int allocate(int categoryId, double arrivalTime)
+    {
+        int job;
+
+        if(this.freeCount > 0)
+        {
+            job = this.freeHandles[--this.freeCount];
+        }
+        else
+        {
+            if(this.usedCount == this.categories.length)
+            {
+                this.grow();
+            }
+
+            job = this.usedCount++;
+        }
+
+        this.arrivalTimes[job] = arrivalTime;
+        this.startTimes[job] = 0;
+        this.serviceTimes[job] = Double.NaN;
+        this.categories[job] = categoryId;
+        this.servers[job] = -1;
+        this.ids[job] = this.allocatedCount++;
+        this.aliveCount++;
+
+        return job;
+    }
+
+    /**
+     * Releases a job, so that its handle can be reused.
+     * @param job The handle of the job.
+     */
+    public void release(int job)
+    {
+        this.freeHandles[this.freeCount++] = job;
+        this.aliveCount--;
+    }
+
+    /**
+     * Releases all the jobs, keeping the allocated memory.
+     */
+    public void clear()
+    {
+        this.usedCount = 0;
+        this.freeCount = 0;
+        this.aliveCount = 0;
+        this.allocatedCount = 0;
+    }
+
+    /**
+     * Returns the number of jobs alive.
+     * @return The number of allocated and not released jobs.
+     */
+    public int size()
+    {
+        return this.aliveCount;
+    }
+
+    /**
+     * Returns the number of jobs that can be stored without growing.
+     * @return The capacity of the table.
+     */
+    public int capacity()
+    {
+        return this.categories.length;
+    }
+
+    /**
+     * Getter for the arrival time.
+     * @param job The handle of the job.
+     * @return The instant the job arrived.
+     */
+    public double getArrivalTime(int job)
+    {
+        return this.arrivalTimes[job];
+    }
+
+    /**
+     * Getter for the start execution time.
+     * @param job The handle of the job.
+     * @return The instant the job started executing.
+     */
+    public double getStartTime(int job)
+    {
+        return this.startTimes[job];
+    }
+
+    /**
+     * Setter for the start execution time.
+     * @param job The handle of the job.
+     * @param startTime The instant the job started executing.
+     */
+    public void setStartTime(int job, double startTime)
+    {
+        this.startTimes[job] = startTime;
+    }
+
+    /**
+     * Getter for the service time.
+     * @param job The handle of the job.
+     * @return The time that took the job to complete the execution, NaN if it has not been sampled yet.
+     */
+    public double getServiceTime(int job)
+    {
+        return this.serviceTimes[job];
+    }
+
+    /**
+     * Setter for the service time.
+     * @param job The handle of the job.
+     * @param serviceTime The time that took the job to complete the execution.
+     */
+    public void setServiceTime(int job, double serviceTime)
+    {
+        this.serviceTimes[job] = serviceTime;
+    }
+
+    /**
+     * Checks if the service time of a job has already been sampled.
+     * @param job The handle of the job.
+     * @return True if the service time is known, false otherwise.
+     */
+    public boolean hasServiceTime(int job)
+    {
+        return !Double.isNaN(this.serviceTimes[job]);
+    }
+
+    /**
+     * Returns the instant the job finishes executing.
+     * @param job The handle of the job.
+     * @return The start execution time plus the service time.
+     */
+    public double getFinishTime(int job)
+    {
+        return this.startTimes[job] + this.serviceTimes[job];
+    }
+
+    /**
+     * Getter for the category.
+     * @param job The handle of the job.
+     * @return The id of the category of the job.
+     */
+    public int getCategory(int job)
+    {
+        return this.categories[job];
+    }
+
+    /**
+     * Getter for the server.
+     * @param job The handle of the job.
+     * @return The id of the server the job was assigned to, -1 if it has not been assigned yet.
+     */
+    public int getServer(int job)
+    {
+        return this.servers[job];
+    }
+
+    /**
+     * Getter for the id of a job.
+     * Unlike handles, ids are never reused: they are assigned in allocation order, from 0 after every clear.
+     * @param job The handle of the job.
+     * @return The id of the job.
+     */
+    public long getId(int job)
+    {
+        return this.ids[job];
+    }
+
+    /**
+     * Setter for the server.
+     * @param job The handle of the job.
+     * @param serverId The id of the server the job is assigned to.
+     */
+    public void setServer(int job, int serverId)
+    {
+        this.servers[job] = serverId;
+    }
+
+    /**
+     * Doubles the capacity of the table.
+     */
+    private void grow()
+    {
+        int capacity = this.categories.length * 2;
+
+        this.arrivalTimes = Arrays.copyOf(this.arrivalTimes, capacity);
+        this.startTimes = Arrays.copyOf(this.startTimes, capacity);
+        this.serviceTimes = Arrays.copyOf(this.serviceTimes, capacity);
+        this.categories = Arrays.copyOf(this.categories, capacity);
+        this.servers = Arrays.copyOf(this.servers, capacity);
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.freeHandles = Arrays.copyOf(this.freeHandles, capacity);
+    }
+
+    /**
+     * Arrival time of each job.
+     */
+    private double[] arrivalTimes;
+
+    /**
+     * Start execution time of each job.
+     */
+    private double[] startTimes;
+
+    /**
+     * Service time of each job.
+     */
+    private double[] serviceTimes;
+
+    /**
+     * Category id of each job.
+     */
+    private int[] categories;
+
+    /**
+     * Server id of each job.
+     */
+    private int[] servers;
+
+    /**
+     * Id of each job.
+     */
+    private long[] ids;
+
+    /**
+     * Stack of released handles.
+     */
+    private int[] freeHandles;
+
+    /**
+     * Number of released handles in the stack.
+     */
+    private int freeCount;
+
+    /**
+     * Number of handles ever allocated since the last clear.
+     */
+    private int usedCount;
+
+    /**
+     * Number of jobs alive.
+     */
+    private int aliveCount;
+
+    /**
+     * Number of jobs allocated since the last clear, which is the id of the next job.
+     */
+    private long allocatedCount;
+}
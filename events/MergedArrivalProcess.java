@@ -0,0 +1,90 @@
+package events;
+
+import config.Category;
+
+import utils.AliasTable;
+import utils.ExponentialSampler;
+import utils.RandomGenerator;
+
+import java.util.List;
+
+/**
+ * Class that represents the superposition of the arrival processes of all the categories.
+ * The arrivals of every category are a Poisson process, so their superposition is a single Poisson process with rate
+ * the sum of the rates, and each arrival belongs to a category with probability proportional to its rate.
+ * Inter-arrival times and categories are drawn from a generator of its own, seeded from the state of the arrival
+ * generators of the categories; the results are statistically equivalent to the ones of the separate processes, but
+ * not identical. Its state carries over between runs.
+ */
+public class MergedArrivalProcess
+{
+    /**
+     * Creates the merged process.
+     * @param categories The categories of the simulation, indexed by id.
+     */
+    public MergedArrivalProcess(List<Category> categories)
+    {
+        double[] rates = new double[categories.size()];
+        double rateSum = 0;
+        long seed = 0;
+
+        for(Category category: categories)
+        {
+            rates[category.getId()] = category.getLambdaArrival();
+            rateSum += category.getLambdaArrival();
+
+            // Reading the state of the generator without consuming it.
+            category.drainBuffers();
+            seed = RandomGenerator.substreamSeed(seed ^ category.getArrivalGenerator().copy().nextLong(), category.getId());
+        }
+
+        this.aliasTable = new AliasTable(rates);
+        this.rateSum = rateSum;
+        this.mean = 1.0 / rateSum;
+        this.sampler = categories.get(0).getSampler();
+        this.generator = new RandomGenerator(seed);
+    }
+
+    /**
+     * Draws the time between the current arrival and the next one, of any category.
+     * @return The inter-arrival time.
+     */
+    public double nextInterArrivalTime()
+    {
+        return this.sampler.sample(this.generator, this.rateSum, this.mean);
+    }
+
+    /**
+     * Draws the category of an arrival.
+     * @return The id of the category.
+     */
+    public int nextCategory()
+    {
+        return this.aliasTable.sample(this.generator);
+    }
+
+    /**
+     * Table to draw the category of an arrival proportionally to its rate.
+     */
+    private final AliasTable aliasTable;
+
+    /**
+     * Sum of the arrival rates of the categories.
+     */
+    private final double rateSum;
+
+    /**
+     * Mean of the inter-arrival times, 1 / the sum of the rates.
+     */
+    private final double mean;
+
+    /**
+     * Method used to sample the inter-arrival times, the one of the categories.
+     */
+    private final ExponentialSampler sampler;
+
+    /**
+     * Generator of the inter-arrival times and of the categories.
+     */
+    private final RandomGenerator generator;
+}
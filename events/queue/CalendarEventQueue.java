@@ -0,0 +1,318 @@
+package events.queue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Event queue implemented as a calendar queue (R. Brown, 1988).
+ * Time is divided in days of fixed width; a day is mapped to one of the buckets of the calendar (a power of
+ * two), and each bucket is a list of slots sorted by time. Events are removed by scanning the buckets day after
+ * day, so enqueue and dequeue take amortized O(1) time when the width of a day is close to the average
+ * separation between pending events.
+ * The number of buckets follows the number of pending events, and the width is recomputed on every resize from
+ * the earliest pending events. Separations larger than twice the average are discarded from the estimate, which
+ * keeps the long tail of exponentially distributed inter-event times from inflating the width.
+ * Lists are linked through per-slot arrays, so no memory is allocated except when the calendar is resized.
+ */
+public class CalendarEventQueue implements EventQueue
+{
+    /**
+     * Creates an empty event queue.
+     * @param categoriesNumber The number of categories (H).
+     * @param serverNumber The number of servers (K).
+     */
+    public CalendarEventQueue(int categoriesNumber, int serverNumber)
+    {
+        int capacity = categoriesNumber + serverNumber;
+
+        this.keys = new double[capacity];
+        this.next = new int[capacity];
+        this.scratchSlots = new int[capacity];
+        this.scratchKeys = new double[capacity];
+        this.size = 0;
+
+        this.resize(MIN_BUCKETS, 1.0);
+    }
+
+    @Override
+    public void push(int slot, double key)
+    {
+        this.keys[slot] = key;
+        this.insert(slot);
+        this.size++;
+
+        if(this.size > 2 * this.buckets.length)
+        {
+            this.resize(this.buckets.length * 2, this.estimateWidth());
+        }
+    }
+
+    @Override
+    public int poll()
+    {
+        if(this.size == 0) throw new NoSuchElementException();
+
+        int mask = this.buckets.length - 1;
+
+        // Scanning one year of days starting from the current one.
+        for(int i = 0; i < this.buckets.length; i++)
+        {
+            int head = this.buckets[(int)(this.currentDay & mask)];
+
+            if(head != -1 && this.dayOf(this.keys[head]) <= this.currentDay)
+            {
+                return this.removeHead(head);
+            }
+
+            this.currentDay++;
+        }
+
+        // No event in the next year: looking directly for the earliest event.
+        int min = -1;
+
+        for(int head: this.buckets)
+        {
+            if(head != -1 && (min == -1 || this.before(head, min)))
+            {
+                min = head;
+            }
+        }
+
+        this.currentDay = this.dayOf(this.keys[min]);
+
+        return this.removeHead(min);
+    }
+
+    @Override
+    public double getKey(int slot)
+    {
+        return this.keys[slot];
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Removes the head of a bucket.
+     * @param head The slot at the head of its bucket.
+     * @return The removed slot.
+     */
+    private int removeHead(int head)
+    {
+        this.buckets[(int)(this.dayOf(this.keys[head]) & (this.buckets.length - 1))] = this.next[head];
+        this.size--;
+
+        if(this.buckets.length > MIN_BUCKETS && this.size < this.buckets.length / 2)
+        {
+            this.resize(this.buckets.length / 2, this.estimateWidth());
+        }
+
+        return head;
+    }
+
+    /**
+     * Inserts a slot in its bucket, after the slots that come before it.
+     * @param slot The slot to insert. Its key must already be set.
+     */
+    private void insert(int slot)
+    {
+        double key = this.keys[slot];
+        long day = this.dayOf(key);
+        int bucket = (int)(day & (this.buckets.length - 1));
+
+        int previous = -1;
+        int current = this.buckets[bucket];
+
+        while(current != -1 && this.before(current, slot))
+        {
+            previous = current;
+            current = this.next[current];
+        }
+
+        this.next[slot] = current;
+
+        if(previous == -1)
+        {
+            this.buckets[bucket] = slot;
+        }
+        else
+        {
+            this.next[previous] = slot;
+        }
+
+        if(day < this.currentDay)
+        {
+            this.currentDay = day;
+        }
+    }
+
+    /**
+     * Checks if a slot comes before another one: events are ordered by time, and simultaneous events by slot.
+     * @param a The first slot.
+     * @param b The second slot.
+     * @return True if the event of a is removed before the event of b.
+     */
+    private boolean before(int a, int b)
+    {
+        return this.keys[a] < this.keys[b] || (this.keys[a] == this.keys[b] && a < b);
+    }
+
+    /**
+     * Returns the day of a time.
+     * @param key The time.
+     * @return The index of the day that contains the time.
+     */
+    private long dayOf(double key)
+    {
+        return (long)(key * this.inverseWidth);
+    }
+
+    /**
+     * Collects the pending slots in the scratch arrays.
+     * @return The number of collected slots.
+     */
+    private int collect()
+    {
+        int n = 0;
+
+        if(this.buckets != null)
+        {
+            for(int head: this.buckets)
+            {
+                for(int current = head; current != -1; current = this.next[current])
+                {
+                    this.scratchSlots[n] = current;
+                    this.scratchKeys[n] = this.keys[current];
+                    n++;
+                }
+            }
+        }
+
+        return n;
+    }
+
+    /**
+     * Estimates the width of a day from the separation of the earliest pending events.
+     * @return The new width, three times the average separation.
+     */
+    private double estimateWidth()
+    {
+        int n = this.collect();
+
+        Arrays.sort(this.scratchKeys, 0, n);
+
+        int samples = Math.min(n, WIDTH_SAMPLES);
+
+        if(samples < 2) return this.width;
+
+        double average = (this.scratchKeys[samples - 1] - this.scratchKeys[0]) / (samples - 1);
+        double sum = 0;
+        int count = 0;
+
+        for(int i = 1; i < samples; i++)
+        {
+            double separation = this.scratchKeys[i] - this.scratchKeys[i - 1];
+
+            if(separation <= 2 * average)
+            {
+                sum += separation;
+                count++;
+            }
+        }
+
+        double width = count > 0 ? 3 * sum / count : 0;
+
+        return width > 0 && Double.isFinite(width) ? width : this.width;
+    }
+
+    /**
+     * Rebuilds the calendar with a new number of buckets and a new width.
+     * @param bucketsNumber The number of buckets, a power of two.
+     * @param width The width of a day.
+     */
+    private void resize(int bucketsNumber, double width)
+    {
+        int n = this.collect();
+
+        this.width = width;
+        this.inverseWidth = 1.0 / width;
+        this.buckets = new int[bucketsNumber];
+        this.currentDay = Long.MAX_VALUE;
+
+        Arrays.fill(this.buckets, -1);
+
+        for(int i = 0; i < n; i++)
+        {
+            this.insert(this.scratchSlots[i]);
+        }
+
+        if(n == 0)
+        {
+            this.currentDay = 0;
+        }
+    }
+
+    /**
+     * Minimum number of buckets.
+     */
+    private static final int MIN_BUCKETS = 2;
+
+    /**
+     * Number of earliest events used to estimate the width of a day.
+     */
+    private static final int WIDTH_SAMPLES = 25;
+
+    /**
+     * Time of each slot.
+     */
+    private final double[] keys;
+
+    /**
+     * Next slot in the same bucket, -1 for the last one.
+     */
+    private final int[] next;
+
+    /**
+     * Scratch array of slots used while resizing.
+     */
+    private final int[] scratchSlots;
+
+    /**
+     * Scratch array of times used while resizing.
+     */
+    private final double[] scratchKeys;
+
+    /**
+     * First slot of each bucket, -1 for empty buckets.
+     */
+    private int[] buckets;
+
+    /**
+     * Width of a day.
+     */
+    private double width;
+
+    /**
+     * Inverse of the width of a day.
+     */
+    private double inverseWidth;
+
+    /**
+     * Day currently being scanned.
+     */
+    private long currentDay;
+
+    /**
+     * Number of pending events.
+     */
+    private int size;
+}
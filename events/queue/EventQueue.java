@@ -0,0 +1,44 @@
+package events.queue;
+
+/**
+ * Represents the set of pending events of a simulation.
+ * Events are identified by a slot: slots [0, H) are the arrivals of the categories, slots [H, H + K) are the
+ * finishes of the servers. A slot can have at most one pending event at a time.
+ * All the implementations remove events in time order. Simultaneous events are removed in the order of the original
+ * PriorityQueue by the heap implementation, and in slot order by the other ones.
+ */
+public interface EventQueue
+{
+    /**
+     * Schedules an event.
+     * @param slot The slot of the event. It must not have a pending event.
+     * @param key The time of the event.
+     */
+    void push(int slot, double key);
+
+    /**
+     * Removes the event with the smallest time and returns its slot.
+     * @return The slot of the removed event.
+     * @throws java.util.NoSuchElementException If the queue is empty.
+     */
+    int poll();
+
+    /**
+     * Returns the time of the pending event in a slot, or of the last event removed from it.
+     * @param slot The slot.
+     * @return The time of the event.
+     */
+    double getKey(int slot);
+
+    /**
+     * Checks if there are pending events.
+     * @return True if there are no pending events.
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the number of pending events.
+     * @return The number of pending events.
+     */
+    int size();
+}
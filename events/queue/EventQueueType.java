@@ -0,0 +1,53 @@
+package events.queue;
+
+/**
+ * Available implementations of the event queue.
+ */
+public enum EventQueueType
+{
+    /**
+     * Single binary heap containing all the pending events, in the order of the original engine. The default.
+     */
+    HEAP,
+
+    /**
+     * Two fixed-size indexed heaps, one for arrivals and one for finishes. Simultaneous events are removed in slot
+     * order.
+     */
+    INDEXED,
+
+    /**
+     * Calendar queue. Simultaneous events are removed in slot order.
+     */
+    CALENDAR;
+
+    /**
+     * Creates a new empty event queue of this type.
+     * @param categoriesNumber The number of categories (H).
+     * @param serverNumber The number of servers (K).
+     * @return The created event queue.
+     */
+    public EventQueue create(int categoriesNumber, int serverNumber)
+    {
+        switch(this)
+        {
+            case INDEXED:
+                return new IndexedEventQueue(categoriesNumber, serverNumber);
+            case CALENDAR:
+                return new CalendarEventQueue(categoriesNumber, serverNumber);
+            default:
+                return new HeapEventQueue(categoriesNumber, serverNumber);
+        }
+    }
+
+    /**
+     * Returns the type with the given name, ignoring case.
+     * @param name The name of the type.
+     * @return The type.
+     * @throws IllegalArgumentException If there is no type with the given name.
+     */
+    public static EventQueueType fromName(String name) throws IllegalArgumentException
+    {
+        return EventQueueType.valueOf(name.toUpperCase());
+    }
+}
@@ -0,0 +1,57 @@
+package events.queue;
+
+import utils.IndexedMinHeap;
+
+/**
+ * Event queue backed by a single binary heap containing all the slots.
+ * It orders events exactly like the PriorityQueue of entries previously used by the event handler, simultaneous
+ * events included, so it reproduces the output of the original engine. It is the default event queue and the
+ * reference implementation for the other ones.
+ */
+public class HeapEventQueue implements EventQueue
+{
+    /**
+     * Creates an empty event queue.
+     * @param categoriesNumber The number of categories (H).
+     * @param serverNumber The number of servers (K).
+     */
+    public HeapEventQueue(int categoriesNumber, int serverNumber)
+    {
+        this.heap = new IndexedMinHeap(categoriesNumber + serverNumber);
+    }
+
+    @Override
+    public void push(int slot, double key)
+    {
+        this.heap.add(slot, key);
+    }
+
+    @Override
+    public int poll()
+    {
+        return this.heap.poll();
+    }
+
+    @Override
+    public double getKey(int slot)
+    {
+        return this.heap.getKey(slot);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return this.heap.isEmpty();
+    }
+
+    @Override
+    public int size()
+    {
+        return this.heap.size();
+    }
+
+    /**
+     * Heap of pending slots.
+     */
+    private final IndexedMinHeap heap;
+}
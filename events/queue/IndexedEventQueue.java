@@ -0,0 +1,159 @@
+package events.queue;
+
+import utils.IndexedMinHeap;
+
+/**
+ * Event queue that exploits the structure of the simulation: at any moment there is at most one pending
+ * arrival for each category and at most one pending finish for each server.
+ * Events are identified by a slot: slots [0, H) are the arrivals of the categories, slots [H, H + K) are the
+ * finishes of the servers. Each group of slots is kept in its own fixed-size indexed min-heap, so no memory
+ * is allocated while the simulation runs.
+ * The slot returned by poll() stays at the root of its heap until the next operation: if that operation
+ * pushes the same slot again (which is what happens for the next arrival of the same category, or the next
+ * job started by the same server), the key is replaced in place with a single sift.
+ * Simultaneous events are removed in slot order, so the output differs from the one of the heap implementation
+ * when events share the same time.
+ */
+public class IndexedEventQueue implements EventQueue
+{
+    /**
+     * Creates an empty event queue.
+     * @param categoriesNumber The number of categories (H).
+     * @param serverNumber The number of servers (K).
+     */
+    public IndexedEventQueue(int categoriesNumber, int serverNumber)
+    {
+        this.categoriesNumber = categoriesNumber;
+        this.arrivals = new IndexedMinHeap(categoriesNumber, true);
+        this.finishes = new IndexedMinHeap(serverNumber, true);
+        this.polled = -1;
+    }
+
+    /**
+     * Schedules an event.
+     * @param slot The slot of the event.
+     * @param key The time of the event.
+     * @throws IllegalStateException If the slot already has a pending event.
+     */
+    @Override
+    public void push(int slot, double key) throws IllegalStateException
+    {
+        if(slot == this.polled)
+        {
+            // The slot is still at the root of its heap, its key can be replaced in place.
+            this.polled = -1;
+            this.heapOf(slot).update(this.indexOf(slot), key);
+        }
+        else
+        {
+            this.flush();
+            this.heapOf(slot).add(this.indexOf(slot), key);
+        }
+    }
+
+    /**
+     * Removes the event with the smallest time and returns its slot.
+     * Simultaneous events are returned in slot order, so an arrival comes before a finish with the same time.
+     * @return The slot of the removed event.
+     * @throws java.util.NoSuchElementException If the queue is empty.
+     */
+    @Override
+    public int poll()
+    {
+        this.flush();
+
+        if(this.finishes.isEmpty() || (!this.arrivals.isEmpty() && Double.compare(this.arrivals.peekKey(), this.finishes.peekKey()) <= 0))
+        {
+            this.polled = this.arrivals.peek();
+        }
+        else
+        {
+            this.polled = this.categoriesNumber + this.finishes.peek();
+        }
+
+        return this.polled;
+    }
+
+    /**
+     * Returns the time of the pending event in a slot, or of the last event removed from it.
+     * @param slot The slot.
+     * @return The time of the event.
+     */
+    @Override
+    public double getKey(int slot)
+    {
+        return this.heapOf(slot).getKey(this.indexOf(slot));
+    }
+
+    /**
+     * Checks if there are pending events.
+     * @return True if there are no pending events.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return this.size() == 0;
+    }
+
+    /**
+     * Returns the number of pending events.
+     * @return The number of pending events.
+     */
+    @Override
+    public int size()
+    {
+        return this.arrivals.size() + this.finishes.size() - (this.polled != -1 ? 1 : 0);
+    }
+
+    /**
+     * Completes the removal of the last polled event, if it has not been pushed again.
+     */
+    private void flush()
+    {
+        if(this.polled != -1)
+        {
+            this.heapOf(this.polled).remove(this.indexOf(this.polled));
+            this.polled = -1;
+        }
+    }
+
+    /**
+     * Returns the heap that contains a slot.
+     * @param slot The slot.
+     * @return The heap that contains the slot.
+     */
+    private IndexedMinHeap heapOf(int slot)
+    {
+        return slot < this.categoriesNumber ? this.arrivals : this.finishes;
+    }
+
+    /**
+     * Returns the index of a slot inside its heap.
+     * @param slot The slot.
+     * @return The category id for arrivals, the server id for finishes.
+     */
+    private int indexOf(int slot)
+    {
+        return slot < this.categoriesNumber ? slot : slot - this.categoriesNumber;
+    }
+
+    /**
+     * The number of categories, which is also the first finish slot.
+     */
+    private final int categoriesNumber;
+
+    /**
+     * Pending arrivals, indexed by category id.
+     */
+    private final IndexedMinHeap arrivals;
+
+    /**
+     * Pending finishes, indexed by server id.
+     */
+    private final IndexedMinHeap finishes;
+
+    /**
+     * Slot returned by the last poll whose removal is deferred, -1 if none.
+     */
+    private int polled;
+}
@@ -0,0 +1,65 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of the dispatch of an arriving job. Only one dispatch every SAMPLE_PERIOD is recorded, so
+ * that an enabled recording does not slow down the simulation; its duration is the latency of the decision of the
+ * policy.
+ */
+@Name("jobscheduler.Dispatch")
+@Label("Dispatch")
+@Category({"Job Scheduler"})
+@Description("Sampled decision of the scheduling policy for an arriving job")
+@StackTrace(false)
+public class DispatchEvent extends Event
+{
+    /**
+     * Number of dispatches for each recorded one.
+     */
+    public static final int SAMPLE_PERIOD = 1024;
+
+    /**
+     * Checks if a recording is collecting the dispatch events, so that no event is created otherwise.
+     * @return True if the dispatch events are enabled.
+     */
+    public static boolean isRecorded()
+    {
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * Scheduling policy that took the decision.
+     */
+    @Label("Policy")
+    public String policy;
+
+    /**
+     * Category of the job.
+     */
+    @Label("Category")
+    public int category;
+
+    /**
+     * Server chosen by the policy.
+     */
+    @Label("Server")
+    public int server;
+
+    /**
+     * Length of the queue of the chosen server before the job, including the job in execution.
+     */
+    @Label("Queue Length")
+    public int queueLength;
+
+    /**
+     * Type of the event, registered when the class is loaded.
+     */
+    private static final EventType TYPE = EventType.getEventType(DispatchEvent.class);
+}
@@ -0,0 +1,91 @@
+package monitoring;
+
+import events.EventHandler;
+
+import jdk.jfr.FlightRecorder;
+
+import scheduling.Server;
+
+import java.util.List;
+
+/**
+ * Source of the periodic QueueGaugeEvent of a run.
+ * The values are read by the recorder thread while the simulation runs, without synchronization, so they are
+ * approximate; the gauges are meant to show trends over long runs.
+ */
+public class QueueGauge implements Runnable
+{
+    /**
+     * Creates a gauge.
+     * @param evtHandler The event handler of the run.
+     * @param servers The servers of the run.
+     */
+    public QueueGauge(EventHandler evtHandler, List<Server> servers)
+    {
+        this.evtHandler = evtHandler;
+        this.servers = servers;
+    }
+
+    /**
+     * Starts emitting the gauge events, if the recorder is available.
+     */
+    public void start()
+    {
+        if(FlightRecorder.isAvailable())
+        {
+            FlightRecorder.addPeriodicEvent(QueueGaugeEvent.class, this);
+        }
+    }
+
+    /**
+     * Stops emitting the gauge events.
+     */
+    public void stop()
+    {
+        if(FlightRecorder.isAvailable())
+        {
+            FlightRecorder.removePeriodicEvent(this);
+        }
+    }
+
+    /**
+     * Emits a gauge event, called by the recorder at every period.
+     */
+    @Override
+    public void run()
+    {
+        QueueGaugeEvent event = new QueueGaugeEvent();
+        int busyServers = 0;
+        long jobsInSystem = 0;
+        int maxQueueLength = 0;
+
+        for(Server server: this.servers)
+        {
+            int length = server.getQueueLength();
+
+            if(length > 0)
+            {
+                busyServers++;
+            }
+
+            jobsInSystem += length;
+            maxQueueLength = Math.max(maxQueueLength, length);
+        }
+
+        event.pendingEvents = this.evtHandler.size();
+        event.busyServers = busyServers;
+        event.jobsInSystem = jobsInSystem;
+        event.maxQueueLength = maxQueueLength;
+        event.commit();
+    }
+
+    /**
+     * The event handler of the run.
+     */
+    private final EventHandler evtHandler;
+
+    /**
+     * The servers of the run.
+     */
+    private final List<Server> servers;
+}
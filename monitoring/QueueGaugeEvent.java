@@ -0,0 +1,46 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * Periodic flight recorder event with the size of the event queue and the lengths of the server queues of the
+ * running simulation. It is emitted by QueueGauge.
+ */
+@Name("jobscheduler.QueueGauge")
+@Label("Queue Gauge")
+@Category({"Job Scheduler"})
+@Description("Size of the event queue and lengths of the server queues")
+@StackTrace(false)
+@Period("1 s")
+public class QueueGaugeEvent extends Event
+{
+    /**
+     * Number of pending events.
+     */
+    @Label("Pending Events")
+    public int pendingEvents;
+
+    /**
+     * Number of servers executing a job.
+     */
+    @Label("Busy Servers")
+    public int busyServers;
+
+    /**
+     * Number of jobs in the servers, including the ones in execution.
+     */
+    @Label("Jobs In System")
+    public long jobsInSystem;
+
+    /**
+     * Length of the longest server queue.
+     */
+    @Label("Max Queue Length")
+    public int maxQueueLength;
+}
@@ -0,0 +1,51 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of a run of the simulation. Its duration is the wall time of the run.
+ */
+@Name("jobscheduler.Run")
+@Label("Simulation Run")
+@Category({"Job Scheduler"})
+@Description("A run of the simulation, from the first arrival to the last finish")
+@StackTrace(false)
+public class RunEvent extends Event
+{
+    /**
+     * Index of the run in the simulation, as reported by the progress MBean.
+     */
+    @Label("Run")
+    public int run;
+
+    /**
+     * Engine that executed the run.
+     */
+    @Label("Engine")
+    public String engine;
+
+    /**
+     * Scheduling policy of the simulation.
+     */
+    @Label("Policy")
+    public int policy;
+
+    /**
+     * Number of arrivals and finishes processed.
+     */
+    @Label("Events")
+    public long events;
+
+    /**
+     * Simulated time at which the last job finished.
+     */
+    @Label("End Time")
+    @Description("Simulated time, not wall time")
+    public double endTime;
+}
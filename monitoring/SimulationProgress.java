@@ -0,0 +1,269 @@
+package monitoring;
+
+import java.lang.management.ManagementFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Progress of a simulation, exposed as an MBean.
+ * The simulating threads publish snapshots every SNAPSHOT_PERIOD events, through volatile fields and a LongAdder, so
+ * that the event loop never synchronizes; the getters derive the rates from the snapshots. With parallel runs the
+ * snapshot fields show the run that published last, which may differ from the current run.
+ */
+public class SimulationProgress implements SimulationProgressMBean
+{
+    /**
+     * Number of events between two snapshots.
+     */
+    public static final int SNAPSHOT_PERIOD = 4096;
+
+    /**
+     * Creates the progress of a simulation that starts now.
+     * @param totalRuns The number of runs (R).
+     * @param jobsPerRun The number of jobs of each run (N).
+     */
+    public SimulationProgress(int totalRuns, int jobsPerRun)
+    {
+        this.totalRuns = totalRuns;
+        this.jobsPerRun = jobsPerRun;
+        this.startNanos = System.nanoTime();
+        this.completedRuns = new AtomicInteger();
+        this.currentRun = -1;
+        this.processedEvents = new LongAdder();
+        this.objectName = null;
+    }
+
+    /**
+     * Registers the MBean in the platform MBean server, with a name unique in the JVM.
+     * @param input The input of the simulation, included in the name.
+     * @return True if the MBean was registered; monitoring is optional, so a failure does not stop the simulation.
+     */
+    public boolean register(String input)
+    {
+        try
+        {
+            ObjectName name = new ObjectName("jobscheduler:type=SimulationProgress,id=" + NEXT_ID.getAndIncrement()
+                    + ",input=" + ObjectName.quote(String.valueOf(input)));
+
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            this.objectName = name;
+
+            return true;
+        }
+        catch(JMException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Unregisters the MBean, if it is registered.
+     */
+    public void unregister()
+    {
+        if(this.objectName == null) return;
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try
+        {
+            server.unregisterMBean(this.objectName);
+        }
+        catch(JMException e)
+        {
+            // Already unregistered.
+        }
+
+        this.objectName = null;
+    }
+
+    /**
+     * Publishes the start of a run.
+     * @param run The index of the run.
+     */
+    public void beginRun(int run)
+    {
+        this.currentRun = run;
+        this.arrivedJobs = 0;
+        this.finishedJobs = 0;
+        this.simulatedTime = 0;
+        this.pendingEvents = 0;
+    }
+
+    /**
+     * Publishes a snapshot of the running run.
+     * @param events The events processed since the previous snapshot of the run.
+     * @param arrivedJobs The number of arrived jobs of the run.
+     * @param finishedJobs The number of finished jobs of the run.
+     * @param simulatedTime The current simulated time.
+     * @param pendingEvents The number of pending events.
+     */
+    public void snapshot(long events, long arrivedJobs, long finishedJobs, double simulatedTime, int pendingEvents)
+    {
+        this.processedEvents.add(events);
+        this.arrivedJobs = arrivedJobs;
+        this.finishedJobs = finishedJobs;
+        this.simulatedTime = simulatedTime;
+        this.pendingEvents = pendingEvents;
+    }
+
+    /**
+     * Publishes the completion of a run.
+     * @param events The events processed since the last snapshot of the run.
+     * @param simulatedTime The time at which the last job of the run finished.
+     */
+    public void completeRun(long events, double simulatedTime)
+    {
+        this.processedEvents.add(events);
+        this.arrivedJobs = this.jobsPerRun;
+        this.finishedJobs = this.jobsPerRun;
+        this.simulatedTime = simulatedTime;
+        this.pendingEvents = 0;
+        this.completedRuns.incrementAndGet();
+    }
+
+    @Override
+    public int getTotalRuns()
+    {
+        return this.totalRuns;
+    }
+
+    @Override
+    public int getCompletedRuns()
+    {
+        return this.completedRuns.get();
+    }
+
+    @Override
+    public int getCurrentRun()
+    {
+        return this.currentRun;
+    }
+
+    @Override
+    public int getJobsPerRun()
+    {
+        return this.jobsPerRun;
+    }
+
+    @Override
+    public long getArrivedJobs()
+    {
+        return this.arrivedJobs;
+    }
+
+    @Override
+    public long getFinishedJobs()
+    {
+        return this.finishedJobs;
+    }
+
+    @Override
+    public double getSimulatedTime()
+    {
+        return this.simulatedTime;
+    }
+
+    @Override
+    public int getPendingEvents()
+    {
+        return this.pendingEvents;
+    }
+
+    @Override
+    public long getProcessedEvents()
+    {
+        return this.processedEvents.sum();
+    }
+
+    @Override
+    public double getElapsedSeconds()
+    {
+        return (System.nanoTime() - this.startNanos) / 1e9;
+    }
+
+    @Override
+    public double getEventsPerSecond()
+    {
+        double elapsed = this.getElapsedSeconds();
+
+        return elapsed > 0 ? this.getProcessedEvents() / elapsed : 0;
+    }
+
+    @Override
+    public double getEstimatedSecondsRemaining()
+    {
+        long processed = this.getProcessedEvents();
+
+        if(processed == 0) return Double.NaN;
+
+        long total = 2L * this.jobsPerRun * this.totalRuns;
+
+        return Math.max(total - processed, 0) / this.getEventsPerSecond();
+    }
+
+    /**
+     * Source of the ids of the registered MBeans.
+     */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /**
+     * Number of runs.
+     */
+    private final int totalRuns;
+
+    /**
+     * Number of jobs of each run.
+     */
+    private final int jobsPerRun;
+
+    /**
+     * Wall time at which the simulation started.
+     */
+    private final long startNanos;
+
+    /**
+     * Number of completed runs.
+     */
+    private final AtomicInteger completedRuns;
+
+    /**
+     * Number of events processed by all the runs, as of their last snapshots.
+     */
+    private final LongAdder processedEvents;
+
+    /**
+     * Name under which the MBean is registered, null if it is not registered.
+     */
+    private ObjectName objectName;
+
+    /**
+     * Index of the last run that started, -1 before the first run.
+     */
+    private volatile int currentRun;
+
+    /**
+     * Number of arrived jobs of the last snapshot.
+     */
+    private volatile long arrivedJobs;
+
+    /**
+     * Number of finished jobs of the last snapshot.
+     */
+    private volatile long finishedJobs;
+
+    /**
+     * Simulated time of the last snapshot.
+     */
+    private volatile double simulatedTime;
+
+    /**
+     * Number of pending events of the last snapshot.
+     */
+    private volatile int pendingEvents;
+}
@@ -0,0 +1,80 @@
+package monitoring;
+
+/**
+ * Management interface of the progress of a simulation.
+ */
+public interface SimulationProgressMBean
+{
+    /**
+     * Returns the number of runs of the simulation.
+     * @return The number of runs (R).
+     */
+    int getTotalRuns();
+
+    /**
+     * Returns the number of completed runs.
+     * @return The number of completed runs.
+     */
+    int getCompletedRuns();
+
+    /**
+     * Returns the index of the run being executed. With parallel runs, several runs are executed at the same time
+     * and this is the last one that started.
+     * @return The index of the run, from 0 to R - 1, or -1 before the first run.
+     */
+    int getCurrentRun();
+
+    /**
+     * Returns the number of jobs of each run.
+     * @return The number of jobs (N).
+     */
+    int getJobsPerRun();
+
+    /**
+     * Returns the number of jobs arrived in the run of the last snapshot.
+     * @return The number of arrived jobs.
+     */
+    long getArrivedJobs();
+
+    /**
+     * Returns the number of jobs finished in the run of the last snapshot.
+     * @return The number of finished jobs.
+     */
+    long getFinishedJobs();
+
+    /**
+     * Returns the simulated time of the last snapshot.
+     * @return The simulated time.
+     */
+    double getSimulatedTime();
+
+    /**
+     * Returns the number of pending events of the last snapshot.
+     * @return The number of pending events.
+     */
+    int getPendingEvents();
+
+    /**
+     * Returns the number of arrivals and finishes processed by all the runs.
+     * @return The number of processed events.
+     */
+    long getProcessedEvents();
+
+    /**
+     * Returns the wall time since the simulation started.
+     * @return The elapsed time in seconds.
+     */
+    double getElapsedSeconds();
+
+    /**
+     * Returns the average number of events processed per second of wall time.
+     * @return The events per second.
+     */
+    double getEventsPerSecond();
+
+    /**
+     * Returns the estimated wall time until the simulation completes, at the average rate.
+     * @return The remaining time in seconds, NaN before the first snapshot.
+     */
+    double getEstimatedSecondsRemaining();
+}
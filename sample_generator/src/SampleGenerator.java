@@ -1,10 +1,20 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Random;
 
 public class SampleGenerator {
 
     private final Random generator;
 
+    /**
+     * If the inputs are written in the binary scenario format of the simulator (config.Scenario).
+     */
+    private final boolean binary;
+
     public static final int MAX_K = 10000;
     public static final int MAX_H = 1000;
     public static final int MAX_N = 1000000;
@@ -14,9 +24,25 @@ public class SampleGenerator {
     public static final int MAX_SEED_ARRIVAL = 400000;
     public static final int MAX_SEED_SERVICE = 400000;
 
+    /**
+     * Magic number of the binary scenario format, "JSCN" in ASCII.
+     */
+    public static final int SCENARIO_MAGIC = 0x4E43534A;
+
+    /**
+     * Version of the binary scenario format.
+     */
+    public static final int SCENARIO_VERSION = 1;
+
     public SampleGenerator(String buildCommand) throws IOException
+    {
+        this(buildCommand, false);
+    }
+
+    public SampleGenerator(String buildCommand, boolean binary) throws IOException
     {
         this.generator = new Random();
+        this.binary = binary;
         int tot = 10;
 
         for(int i = 0; i < tot; i++)
@@ -27,12 +53,17 @@ public class SampleGenerator {
         }
     }
 
-    protected String generateInput(int key) throws FileNotFoundException {
+    protected String generateInput(int key) throws IOException {
         int K = Math.abs(this.generator.nextInt()) % MAX_K + 1;
         int H = Math.abs(this.generator.nextInt()) % MAX_H + 1;
         int N = Math.abs(this.generator.nextInt()) % MAX_N + 1;
         int R = Math.abs(this.generator.nextInt()) % MAX_R + 1;
 
+        if(this.binary)
+        {
+            return this.generateBinaryInput(key, K, H, N, R);
+        }
+
         StringBuilder builder = new StringBuilder();
 
         builder
@@ -66,6 +97,60 @@ public class SampleGenerator {
         return inputPath;
     }
 
+    /**
+     * Generates an input in the binary scenario format: a header with magic number, version, K, H, N, R and P as ints,
+     * followed by lambda arrival, lambda service (doubles), seed arrival and seed service (ints) of each category, all
+     * in little-endian order.
+     * @param key The index of the input.
+     * @param K The number of servers.
+     * @param H The number of categories.
+     * @param N The number of jobs.
+     * @param R The number of repetitions.
+     * @return The path of the input.
+     * @throws IOException If there are errors while writing the file.
+     */
+    protected String generateBinaryInput(int key, int K, int H, int N, int R) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(28 + H * 24).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer
+                .putInt(SCENARIO_MAGIC)
+                .putInt(SCENARIO_VERSION)
+                .putInt(K)
+                .putInt(H)
+                .putInt(N)
+                .putInt(R)
+                .putInt(0);
+
+        for(int i = 0; i < H; i++)
+        {
+            double lambdaArrival = this.generator.nextDouble() * MAX_ARRIVAL + 0.5;
+            double lambdaService = this.generator.nextDouble() * MAX_SERVICE + 0.5;
+
+            int seedArrival = Math.abs(this.generator.nextInt()) % MAX_SEED_ARRIVAL + 1;
+            int seedService = Math.abs(this.generator.nextInt()) % MAX_SEED_SERVICE + 1;
+
+            buffer
+                    .putDouble(lambdaArrival)
+                    .putDouble(lambdaService)
+                    .putInt(seedArrival)
+                    .putInt(seedService);
+        }
+
+        buffer.flip();
+
+        String inputPath = System.getProperty("user.dir") + "/generated_input/input_sample_" + key + ".scn";
+
+        try(FileChannel channel = FileChannel.open(Path.of(inputPath), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            while(buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+
+        return inputPath;
+    }
 
     protected String generateOutput(int key, String inputPath, String buildCommand) throws IOException
     {
@@ -124,6 +209,9 @@ public class SampleGenerator {
     {
         String buildCommand = "\"C:\\Program Files\\Java\\jdk-17\\bin\\java.exe\" \"-javaagent:C:\\Program Files\\JetBrains\\IntelliJ IDEA 2023.2\\lib\\idea_rt.jar=56514:C:\\Program Files\\JetBrains\\IntelliJ IDEA 2023.2\\bin\" -Dfile.encoding=UTF-8 -classpath C:\\Users\\Utente\\Desktop\\job_scheduler\\out\\production\\job_scheduler Simulator";
 
-        new SampleGenerator(buildCommand);
+        // --binary writes the inputs in the binary scenario format instead of the text one.
+        boolean binary = args.length > 0 && args[0].equals("--binary");
+
+        new SampleGenerator(buildCommand, binary);
     }
 }
\ No newline at end of file
@@ -1,92 +1,176 @@
 package scheduling;
 
+import config.Category;
+
 import events.EventHandler;
-import events.entries.ArrivalEntry;
-import events.entries.Entry;
-import events.entries.FinishEntry;
+import events.JobTable;
+
+import monitoring.DispatchEvent;
 
 import scheduling.policy.SchedulingPolicy;
 
-import java.util.Collection;
+import trace.TraceFormat;
+import trace.TraceSink;
+
 import java.util.List;
 
 /**
  * Class that represents a scheduler.
  * It interacts with the scheduling policy and the event handler.
+ * The policy is notified of every arrival, start and finish of a job, so that it can keep its own index of the
+ * servers up to date.
  */
 public class Scheduler
 {
     /**
-     * Creates a new scheduler.
-     * @param serverList The list of servers on which to do scheduling
+     * Creates a new scheduler and initializes the policy.
+     * @param serverList The list of servers on which to do scheduling, indexed by id.
+     * @param evtHandler The event handler.
+     * @param policy A scheduling policy.
+     * @param jobs The table that stores the jobs.
+     * @param categories The categories of the simulation, indexed by id.
+     */
+    public Scheduler(List<Server> serverList, EventHandler evtHandler, SchedulingPolicy policy, JobTable jobs, List<Category> categories)
+    {
+        this(serverList, evtHandler, policy, jobs, categories, null);
+    }
+
+    /**
+     * Creates a new scheduler that records every arrival, start and finish of a job in a trace.
+     * @param serverList The list of servers on which to do scheduling, indexed by id.
      * @param evtHandler The event handler.
      * @param policy A scheduling policy.
+     * @param jobs The table that stores the jobs.
+     * @param categories The categories of the simulation, indexed by id.
+     * @param trace The trace sink, null to disable tracing.
      */
-    public Scheduler(Collection<Server> serverList, EventHandler evtHandler, SchedulingPolicy policy)
+    public Scheduler(List<Server> serverList, EventHandler evtHandler, SchedulingPolicy policy, JobTable jobs, List<Category> categories, TraceSink trace)
     {
         this.serverList = serverList;
         this.evtHandler = evtHandler;
         this.policy = policy;
+        this.jobs = jobs;
+        this.categories = categories;
+        this.trace = trace;
+        this.policyName = policy.getClass().getSimpleName();
+        this.dispatchCountdown = DispatchEvent.SAMPLE_PERIOD;
 
         this.arrivedJobs  = 0;
         this.finishedJobs = 0;
+
+        this.policy.initialize(this);
     }
 
     /**
      * Returns the list of servers that the scheduler is handling.
-     * @return The list of servers that the scheduler is handling.
+     * @return The list of servers that the scheduler is handling, indexed by id.
      */
-    public Collection<Server> getServers()
+    public List<Server> getServers()
     {
         return this.serverList;
     }
 
     /**
-     * Adds a new entry for scheduling.
-     * @param entry The entry to schedule.
+     * Returns the table that stores the jobs.
+     * @return The job table.
      */
-    public void schedule(Entry entry)
+    public JobTable getJobs()
     {
-        // Obtaining server target based on current target and scheduler state.
-        Server target = this.policy.pollServer(entry, this);
+        return this.jobs;
+    }
 
-        if(entry instanceof ArrivalEntry)
+    /**
+     * Returns the category of a job.
+     * @param job The handle of the job.
+     * @return The category of the job.
+     */
+    public Category getCategory(int job)
+    {
+        return this.categories.get(this.jobs.getCategory(job));
+    }
+
+    /**
+     * Schedules a job that just arrived.
+     * @param job The handle of the arrived job.
+     */
+    public void scheduleArrival(int job)
+    {
+        // Recording one dispatch every sample period, with the latency of the decision.
+        DispatchEvent dispatch = null;
+
+        if(--this.dispatchCountdown == 0)
         {
-            boolean immediateExecution = !target.isBusy();
+            this.dispatchCountdown = DispatchEvent.SAMPLE_PERIOD;
 
-            // If the server isn't busy, the job starts executing immediately
-            if(immediateExecution)
+            if(DispatchEvent.isRecorded())
             {
-                this.evtHandler.generateFinishEvent((ArrivalEntry)entry, entry.getKey(), target.getId())
-                        .getLinkedArrival().setStartExecution(entry.getKey());
+                dispatch = new DispatchEvent();
+                dispatch.begin();
             }
+        }
+
+        // Obtaining server target based on current target and scheduler state.
+        Server target = this.policy.onArrival(job, this);
+
+        if(dispatch != null)
+        {
+            this.commitDispatch(dispatch, job, target);
+        }
 
-            target.enqueue(entry);
-            // Adjust estimated queuing time.
-            target.setWaitingTime(target.getWaitingTime() + 1.0 / entry.getCategory().getLambdaService());
+        double currentTime = this.jobs.getArrivalTime(job);
 
-            this.arrivedJobs++;
+        this.jobs.setServer(job, target.getId());
+        this.record(TraceFormat.ARRIVAL, job, currentTime);
+
+        // Tracking the exact unfinished work when the size of the job is known.
+        if(this.jobs.hasServiceTime(job))
+        {
+            target.addWork(currentTime, this.jobs.getServiceTime(job));
         }
-        else if(entry instanceof FinishEntry)
+
+        boolean immediateExecution = !target.isBusy();
+
+        target.enqueue(job);
+
+        // If the server isn't busy, the job starts executing immediately
+        if(immediateExecution)
         {
-            // Entry that finished executing
-            Entry finished = target.remove();
-            target.setWaitingTime(target.getWaitingTime() - 1.0 / entry.getCategory().getLambdaService());
+            this.evtHandler.generateFinishEvent(job, currentTime, target.getId());
+            this.record(TraceFormat.START, job, currentTime);
+            this.policy.onStart(target, job, this);
+        }
 
-            // Current executing job
-            if(target.isBusy())
-            {
-                Entry currentJob = target.getCurrentJob();
+        this.arrivedJobs++;
+    }
 
-                // Generates end event for current job
-                this.evtHandler.generateFinishEvent((ArrivalEntry)currentJob, entry.getKey(), target.getId())
-                        .getLinkedArrival().setStartExecution(entry.getKey());
-            }
+    /**
+     * Schedules a job that just finished executing.
+     * @param job The handle of the finished job.
+     */
+    public void scheduleFinish(int job)
+    {
+        // Obtaining the server that executed the job.
+        Server target = this.serverList.get(this.jobs.getServer(job));
+        double currentTime = this.jobs.getFinishTime(job);
+
+        this.record(TraceFormat.FINISH, job, currentTime);
+
+        // Job that finished executing
+        target.remove();
+        this.policy.onFinish(target, job, this);
 
-            this.finishedJobs++;
+        // Current executing job
+        if(target.isBusy())
+        {
+            int currentJob = target.getCurrentJob();
+
+            // Generates end event for current job
+            this.evtHandler.generateFinishEvent(currentJob, currentTime, target.getId());
+            this.record(TraceFormat.START, currentJob, currentTime);
+            this.policy.onStart(target, currentJob, this);
         }
 
-        policy.putServer(target, this);
+        this.finishedJobs++;
     }
 
     /**
@@ -107,6 +191,41 @@ public class Scheduler
         return this.arrivedJobs;
     }
 
+    /**
+     * Completes and commits a sampled dispatch event, if it is enabled.
+     * @param dispatch The event, begun before the decision.
+     * @param job The handle of the dispatched job.
+     * @param target The chosen server.
+     */
+    private void commitDispatch(DispatchEvent dispatch, int job, Server target)
+    {
+        dispatch.end();
+
+        if(dispatch.shouldCommit())
+        {
+            dispatch.policy = this.policyName;
+            dispatch.category = this.jobs.getCategory(job);
+            dispatch.server = target.getId();
+            dispatch.queueLength = target.getQueueLength();
+            dispatch.commit();
+        }
+    }
+
+    /**
+     * Appends a record to the trace, if tracing is enabled.
+     * @param type The type of the record.
+     * @param job The handle of the job.
+     * @param time The time of the event.
+     */
+    private void record(byte type, int job, double time)
+    {
+        if(this.trace == null) return;
+
+        double serviceTime = this.jobs.hasServiceTime(job) ? this.jobs.getServiceTime(job) : Double.NaN;
+
+        this.trace.append(type, time, serviceTime, this.jobs.getId(job), this.jobs.getCategory(job), this.jobs.getServer(job));
+    }
+
     /**
      * Policy used to select the target server.
      */
@@ -117,10 +236,35 @@ public class Scheduler
      */
     private final EventHandler evtHandler;
 
+    /**
+     * Table that stores the jobs.
+     */
+    private final JobTable jobs;
+
+    /**
+     * Categories of the simulation.
+     */
+    private final List<Category> categories;
+
     /**
      * Server list.
      */
-    private final Collection<Server> serverList;
+    private final List<Server> serverList;
+
+    /**
+     * Sink of the trace, null if tracing is disabled.
+     */
+    private final TraceSink trace;
+
+    /**
+     * Name of the policy, recorded in the dispatch events.
+     */
+    private final String policyName;
+
+    /**
+     * Number of dispatches before the next sampled one.
+     */
+    private int dispatchCountdown;
 
     /**
      * Number of jobs arrived.
@@ -1,24 +1,52 @@
 package scheduling;
 
-import events.entries.Entry;
+import events.JobTable;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import utils.IntDoubleHeap;
+import utils.IntRingBuffer;
+
+import java.util.NoSuchElementException;
 
 /**
  * Class that represents a simulation server.
+ * The server executes one job at a time; the other jobs wait in a queue ordered by the server discipline.
+ * It also tracks the exact amount of unfinished work, when the service times of the jobs are known at arrival.
  */
-public class Server implements Comparable<Server>
+public class Server
 {
     /**
-     * Creates a server
+     * Creates a FIFO server
      * @param id Identifier of the server. It must be unique.
      */
     public Server(int id)
     {
-        this.jobs = new LinkedList<>();
+        this(id, ServerDiscipline.FIFO, null);
+    }
+
+    /**
+     * Creates a server
+     * @param id Identifier of the server. It must be unique.
+     * @param discipline The order in which waiting jobs are executed.
+     * @param jobs The table that stores the jobs. It is needed only by the SHORTEST_FIRST discipline.
+     */
+    public Server(int id, ServerDiscipline discipline, JobTable jobs)
+    {
         this.id = id;
-        this.waitingTime = 0;
+        this.discipline = discipline;
+        this.jobTable = jobs;
+
+        if(discipline == ServerDiscipline.FIFO)
+        {
+            this.fifo = new IntRingBuffer(INITIAL_QUEUE_CAPACITY);
+            this.shortestFirst = null;
+        }
+        else
+        {
+            this.fifo = null;
+            this.shortestFirst = new IntDoubleHeap(INITIAL_QUEUE_CAPACITY);
+        }
+
+        this.reset();
     }
 
     /**
@@ -27,78 +55,166 @@ public class Server implements Comparable<Server>
      */
     public boolean isBusy()
     {
-        return !this.jobs.isEmpty();
+        return this.currentJob != -1;
     }
 
     /**
-     * Adds a new entry to execute.
-     * @param entry The entry to execute.
+     * Adds a new job to execute. If the server is not busy, it becomes the current executing job.
+     * @param job The handle of the job to execute.
      */
-    public void enqueue(Entry entry)
+    public void enqueue(int job)
     {
-        this.jobs.add(entry);
+        if(this.currentJob == -1)
+        {
+            this.currentJob = job;
+        }
+        else if(this.fifo != null)
+        {
+            this.fifo.add(job);
+        }
+        else
+        {
+            this.shortestFirst.add(job, this.jobTable.getServiceTime(job));
+        }
     }
 
     /**
-     * Removes an entry from the queue.
-     * @return The removed entry.
+     * Removes the current executing job, and selects the next one.
+     * @return The handle of the removed job.
+     * @throws NoSuchElementException If the server is not busy.
      */
-    public Entry remove()
+    public int remove() throws NoSuchElementException
     {
-        return this.jobs.remove();
+        int finished = this.getCurrentJob();
+
+        if(this.fifo != null)
+        {
+            this.currentJob = this.fifo.isEmpty() ? -1 : this.fifo.remove();
+        }
+        else
+        {
+            this.currentJob = this.shortestFirst.isEmpty() ? -1 : this.shortestFirst.poll();
+        }
+
+        return finished;
     }
 
     /**
-     * Returns the current executing entry.
-     * @return The current executing entry.
+     * Returns the current executing job.
+     * @return The handle of the current executing job.
+     * @throws NoSuchElementException If the server is not busy.
      */
-    public Entry getCurrentJob()
+    public int getCurrentJob() throws NoSuchElementException
     {
-        return this.jobs.element();
+        if(this.currentJob == -1) throw new NoSuchElementException();
+
+        return this.currentJob;
     }
 
     /**
-     * Returns the identifier of the server.
-     * @return The identifier of the server.
+     * Returns the number of jobs in the server, including the executing one.
+     * @return The number of jobs.
      */
-    public int getId()
+    public int getQueueLength()
     {
-        return this.id;
+        int waiting = this.fifo != null ? this.fifo.size() : this.shortestFirst.size();
+
+        return this.currentJob == -1 ? waiting : waiting + 1;
+    }
+
+    /**
+     * Adds the service time of an arrived job to the unfinished work of the server.
+     * The server works at unit rate whenever it has work, whatever the discipline, so the instant it becomes idle
+     * is updated in O(1) without tracking the progress of the single jobs.
+     * @param currentTime The arrival time of the job.
+     * @param serviceTime The service time of the job.
+     */
+    public void addWork(double currentTime, double serviceTime)
+    {
+        this.workEnd = Math.max(this.workEnd, currentTime) + serviceTime;
+    }
+
+    /**
+     * Returns the exact unfinished work of the server, considering only the jobs whose work has been added.
+     * @param currentTime The current time.
+     * @return The time needed to complete all the jobs in the server.
+     */
+    public double getUnfinishedWork(double currentTime)
+    {
+        return Math.max(0, this.workEnd - currentTime);
+    }
+
+    /**
+     * Returns the instant the server becomes idle, if no other job arrives.
+     * @return The instant the unfinished work is completed.
+     */
+    public double getWorkEnd()
+    {
+        return this.workEnd;
     }
 
     /**
-     * Set the estimated waiting time.
-     * @param newValue The estimated waiting time.
+     * Returns the queue discipline of the server.
+     * @return The queue discipline.
      */
-    public void setWaitingTime(double newValue)
+    public ServerDiscipline getDiscipline()
     {
-        this.waitingTime = newValue;
+        return this.discipline;
     }
 
     /**
-     * Returns the current estimated waiting time for a new job.
-     * @return Estimated waiting time.
+     * Brings the server back to its initial state, so that it can be reused by another run.
+     * The memory allocated by the queue is kept.
      */
-    public double getWaitingTime()
+    public void reset()
     {
-        return waitingTime;
+        this.currentJob = -1;
+        this.workEnd = 0;
+
+        if(this.fifo != null)
+        {
+            this.fifo.clear();
+        }
+        else
+        {
+            this.shortestFirst.clear();
+        }
     }
 
     /**
-     * Compare to override
-     * @param o the object to be compared.
-     * @return Double.compare(this.waitingTime, o.waitingTime)
+     * Returns the identifier of the server.
+     * @return The identifier of the server.
      */
-    @Override
-    public int compareTo(Server o)
+    public int getId()
     {
-        return Double.compare(this.waitingTime, o.waitingTime);
+        return this.id;
     }
 
     /**
-     * Jobs to execute.
+     * Initial capacity of the queue of each server.
+     * It is kept small because there can be thousands of servers; the queue grows when needed.
      */
-    private final Queue<Entry> jobs;
+    private static final int INITIAL_QUEUE_CAPACITY = 4;
+
+    /**
+     * Handles of the jobs waiting to execute, for the FIFO discipline.
+     */
+    private final IntRingBuffer fifo;
+
+    /**
+     * Handles of the jobs waiting to execute ordered by service time, for the SHORTEST_FIRST discipline.
+     */
+    private final IntDoubleHeap shortestFirst;
+
+    /**
+     * Order in which waiting jobs are executed.
+     */
+    private final ServerDiscipline discipline;
+
+    /**
+     * Table that stores the jobs.
+     */
+    private final JobTable jobTable;
 
     /**
      * Identifier of the server.
@@ -106,7 +222,12 @@ public class Server implements Comparable<Server>
     private final int id;
 
     /**
-     * Estimated waiting time.
+     * Handle of the executing job, -1 if the server is idle.
+     */
+    private int currentJob;
+
+    /**
+     * Instant at which the server completes the work added so far.
      */
-    private double waitingTime;
+    private double workEnd;
 }
@@ -0,0 +1,39 @@
+package scheduling;
+
+/**
+ * Order in which a server executes the jobs waiting in its queue.
+ */
+public enum ServerDiscipline
+{
+    /**
+     * Jobs are executed in arrival order.
+     */
+    FIFO,
+
+    /**
+     * When the server becomes free, the waiting job with the smallest service time is executed next.
+     * Jobs are never preempted, so a waiting job's remaining time is its service time.
+     * It requires service times to be sampled at arrival.
+     */
+    SHORTEST_FIRST;
+
+    /**
+     * Returns the discipline with the given name, ignoring case. "sjf" is accepted for SHORTEST_FIRST.
+     * @param name The name of the discipline.
+     * @return The discipline.
+     * @throws IllegalArgumentException If there is no discipline with the given name, or for "srpt": jobs are never
+     *                                  preempted, so shortest remaining processing time is not supported.
+     */
+    public static ServerDiscipline fromName(String name) throws IllegalArgumentException
+    {
+        switch(name.toLowerCase())
+        {
+            case "sjf":
+                return SHORTEST_FIRST;
+            case "srpt":
+                throw new IllegalArgumentException("Preemptive SRPT is not supported, use --discipline=sjf for non-preemptive shortest job first");
+            default:
+                return ServerDiscipline.valueOf(name.toUpperCase().replace('-', '_'));
+        }
+    }
+}
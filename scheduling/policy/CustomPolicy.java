@@ -1,51 +1,69 @@
 package scheduling.policy;
 
-import events.entries.ArrivalEntry;
-import events.entries.Entry;
-import events.entries.FinishEntry;
-
 import scheduling.Scheduler;
 import scheduling.Server;
 
-import java.util.Iterator;
+import utils.IndexedMinHeap;
+
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
- * Class that represents the default scheduling policy.
+ * Class that represents the custom scheduling policy.
+ * Each job is assigned to the server with the least estimated waiting time, which is the sum of the expected
+ * service times (1 / lambdaService) of the jobs in the server.
+ * Servers are kept in an indexed min-heap keyed by their estimated waiting time, so that both the server with
+ * the least waiting time and the server of a finished job are updated in O(log K).
  */
 public class CustomPolicy implements SchedulingPolicy
 {
-    public Server pollServer(Entry entry, Scheduler scheduler)
+    @Override
+    public void initialize(Scheduler scheduler)
     {
-        PriorityQueue<Server> serverList = (PriorityQueue<Server>) scheduler.getServers();
+        this.servers = scheduler.getServers();
+        this.heap = new IndexedMinHeap(this.servers.size());
 
-        if(entry instanceof ArrivalEntry)
+        for(Server server: this.servers)
         {
-            return serverList.poll();
+            this.heap.add(server.getId(), 0);
         }
-        else if(entry instanceof FinishEntry)
-        {
-            Iterator<Server> iterator = serverList.iterator();
-            while(iterator.hasNext())
-            {
-                Server current = iterator.next();
-
-                if (((FinishEntry) entry).getServerId() == current.getId())
-                {
-                    iterator.remove();
-                    return current;
-                }
-            }
+    }
 
-        }
+    @Override
+    public Server onArrival(int job, Scheduler scheduler)
+    {
+        int serverId = this.heap.peek();
+        double waitingTime = this.heap.getKey(serverId) + scheduler.getCategory(job).getMeanService();
+
+        // Removing and adding back the server keeps the same tie-breaking as a PriorityQueue of servers.
+        this.heap.poll();
+        this.heap.add(serverId, waitingTime);
 
-        return null;
+        return this.servers.get(serverId);
     }
 
     @Override
-    public void putServer(Server server, Scheduler scheduler)
+    public void onStart(Server server, int job, Scheduler scheduler)
     {
-        scheduler.getServers().add(server);
+
+    }
+
+    @Override
+    public void onFinish(Server server, int job, Scheduler scheduler)
+    {
+        int serverId = server.getId();
+        double waitingTime = this.heap.getKey(serverId) - scheduler.getCategory(job).getMeanService();
+
+        this.heap.remove(serverId);
+        this.heap.add(serverId, waitingTime);
     }
+
+    /**
+     * Servers indexed by id.
+     */
+    private List<Server> servers;
+
+    /**
+     * Server ids ordered by estimated waiting time.
+     */
+    private IndexedMinHeap heap;
 }
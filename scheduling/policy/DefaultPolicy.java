@@ -1,9 +1,5 @@
 package scheduling.policy;
 
-import events.entries.ArrivalEntry;
-import events.entries.Entry;
-import events.entries.FinishEntry;
-
 import scheduling.Scheduler;
 import scheduling.Server;
 
@@ -11,28 +7,36 @@ import java.util.List;
 
 /**
  * Class that represents the default scheduling policy.
+ * Jobs are assigned to the servers in round robin order.
  */
 public class DefaultPolicy implements SchedulingPolicy
 {
-    public Server pollServer(Entry entry, Scheduler scheduler)
+    @Override
+    public void initialize(Scheduler scheduler)
+    {
+        this.servers = scheduler.getServers();
+    }
+
+    @Override
+    public Server onArrival(int job, Scheduler scheduler)
     {
-        List<Server> serverList = (List<Server>) scheduler.getServers();
-
-        if(entry instanceof ArrivalEntry)
-        {
-            return serverList.get(scheduler.getArrivedJobs() % serverList.size());
-        }
-        else if(entry instanceof FinishEntry)
-        {
-            return serverList.get(((FinishEntry) entry).getServerId());
-        }
-
-        return null;
+        return this.servers.get(scheduler.getArrivedJobs() % this.servers.size());
     }
 
     @Override
-    public void putServer(Server server, Scheduler scheduler)
+    public void onStart(Server server, int job, Scheduler scheduler)
     {
 
     }
+
+    @Override
+    public void onFinish(Server server, int job, Scheduler scheduler)
+    {
+
+    }
+
+    /**
+     * Servers indexed by id.
+     */
+    private List<Server> servers;
 }
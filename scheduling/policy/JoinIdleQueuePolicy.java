@@ -0,0 +1,85 @@
+package scheduling.policy;
+
+import scheduling.Scheduler;
+import scheduling.Server;
+
+import utils.BitSet64;
+
+import java.util.List;
+
+/**
+ * Class that represents the join-idle-queue scheduling policy.
+ * Idle servers are tracked in a bitset updated on every start and finish of a job; each job is assigned to the
+ * idle server with the lowest id, found by scanning one summary word for every 4096 servers. When no server is
+ * idle, the choice is delegated to a fallback policy.
+ */
+public class JoinIdleQueuePolicy implements SchedulingPolicy
+{
+    /**
+     * Creates the policy.
+     * @param fallback The policy used when no server is idle. It receives all the callbacks, but its onArrival is
+     *                 invoked only for the jobs it has to place, so it must not rely on seeing every arrival.
+     */
+    public JoinIdleQueuePolicy(SchedulingPolicy fallback)
+    {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void initialize(Scheduler scheduler)
+    {
+        this.servers = scheduler.getServers();
+        this.idleServers = new BitSet64(this.servers.size());
+
+        for(Server server: this.servers)
+        {
+            this.idleServers.add(server.getId());
+        }
+
+        this.fallback.initialize(scheduler);
+    }
+
+    @Override
+    public Server onArrival(int job, Scheduler scheduler)
+    {
+        if(this.idleServers.isEmpty())
+        {
+            return this.fallback.onArrival(job, scheduler);
+        }
+
+        return this.servers.get(this.idleServers.first());
+    }
+
+    @Override
+    public void onStart(Server server, int job, Scheduler scheduler)
+    {
+        this.idleServers.remove(server.getId());
+        this.fallback.onStart(server, job, scheduler);
+    }
+
+    @Override
+    public void onFinish(Server server, int job, Scheduler scheduler)
+    {
+        if(!server.isBusy())
+        {
+            this.idleServers.add(server.getId());
+        }
+
+        this.fallback.onFinish(server, job, scheduler);
+    }
+
+    /**
+     * Policy used when no server is idle.
+     */
+    private final SchedulingPolicy fallback;
+
+    /**
+     * Servers indexed by id.
+     */
+    private List<Server> servers;
+
+    /**
+     * Ids of the idle servers.
+     */
+    private BitSet64 idleServers;
+}
@@ -0,0 +1,70 @@
+package scheduling.policy;
+
+import events.JobTable;
+
+import scheduling.Scheduler;
+import scheduling.Server;
+
+import utils.IndexedMinHeap;
+
+import java.util.List;
+
+/**
+ * Class that represents the least-work-left scheduling policy.
+ * Each job is assigned to the server with the least exact unfinished work, so it requires service times to be
+ * sampled at arrival.
+ * The unfinished work of a server at time t is max(0, end - t), where end is the instant the server completes its
+ * work; at any given time the order of the servers by unfinished work is the order by end, so servers are kept in
+ * an indexed min-heap keyed by end and updated in O(log K) with no floating-point drift.
+ */
+public class LeastWorkLeftPolicy implements SchedulingPolicy
+{
+    @Override
+    public void initialize(Scheduler scheduler)
+    {
+        this.servers = scheduler.getServers();
+        this.heap = new IndexedMinHeap(this.servers.size());
+
+        for(Server server: this.servers)
+        {
+            this.heap.add(server.getId(), server.getWorkEnd());
+        }
+    }
+
+    @Override
+    public Server onArrival(int job, Scheduler scheduler) throws IllegalStateException
+    {
+        JobTable jobs = scheduler.getJobs();
+
+        if(!jobs.hasServiceTime(job)) throw new IllegalStateException("Least work left requires service times sampled at arrival");
+
+        int serverId = this.heap.peek();
+        double workEnd = Math.max(this.heap.getKey(serverId), jobs.getArrivalTime(job)) + jobs.getServiceTime(job);
+
+        this.heap.update(serverId, workEnd);
+
+        return this.servers.get(serverId);
+    }
+
+    @Override
+    public void onStart(Server server, int job, Scheduler scheduler)
+    {
+
+    }
+
+    @Override
+    public void onFinish(Server server, int job, Scheduler scheduler)
+    {
+
+    }
+
+    /**
+     * Servers indexed by id.
+     */
+    private List<Server> servers;
+
+    /**
+     * Server ids ordered by the instant they complete their work.
+     */
+    private IndexedMinHeap heap;
+}
@@ -0,0 +1,83 @@
+package scheduling.policy;
+
+import scheduling.Scheduler;
+import scheduling.Server;
+
+import utils.RandomGenerator;
+
+import java.util.List;
+
+/**
+ * Class that represents the power-of-d-choices scheduling policy, JSQ(d).
+ * For each job, d servers are sampled uniformly at random (with replacement) and the job is assigned to the
+ * one with the least number of jobs; ties go to the first sampled server.
+ * Selection takes O(d) and does not depend on the number of servers.
+ */
+public class PowerOfChoicesPolicy implements SchedulingPolicy
+{
+    /**
+     * Creates the policy.
+     * @param choices The number of servers sampled for each job (d). It must be positive.
+     * @param generator Random generator dedicated to the sampling of servers.
+     * @throws IllegalArgumentException If the number of choices is not positive.
+     */
+    public PowerOfChoicesPolicy(int choices, RandomGenerator generator) throws IllegalArgumentException
+    {
+        if(choices < 1) throw new IllegalArgumentException("The number of choices must be positive");
+
+        this.choices = choices;
+        this.generator = generator;
+    }
+
+    @Override
+    public void initialize(Scheduler scheduler)
+    {
+        this.servers = scheduler.getServers();
+    }
+
+    @Override
+    public Server onArrival(int job, Scheduler scheduler)
+    {
+        int serverNumber = this.servers.size();
+        Server best = this.servers.get(this.generator.nextInt(serverNumber));
+
+        for(int i = 1; i < this.choices; i++)
+        {
+            Server candidate = this.servers.get(this.generator.nextInt(serverNumber));
+
+            if(candidate.getQueueLength() < best.getQueueLength())
+            {
+                best = candidate;
+            }
+        }
+
+        return best;
+    }
+
+    @Override
+    public void onStart(Server server, int job, Scheduler scheduler)
+    {
+
+    }
+
+    @Override
+    public void onFinish(Server server, int job, Scheduler scheduler)
+    {
+
+    }
+
+    /**
+     * Number of servers sampled for each job.
+     */
+    private final int choices;
+
+    /**
+     * Random generator dedicated to the sampling of servers.
+     */
+    private final RandomGenerator generator;
+
+    /**
+     * Servers indexed by id.
+     */
+    private List<Server> servers;
+}
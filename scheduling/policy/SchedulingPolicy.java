@@ -1,22 +1,42 @@
 package scheduling.policy;
 
-import events.entries.Entry;
-
 import scheduling.Scheduler;
 import scheduling.Server;
 
 /**
  * Represents a scheduling policy.
+ * A policy owns the index it uses to select servers: it builds it in initialize() and keeps it up to date
+ * through the callbacks that the scheduler invokes on every arrival, start and finish of a job.
  */
 public interface SchedulingPolicy
 {
     /**
-     * Selects a server from a scheduler to handle an entry.
-     * @param entry The entry to assign to a server.
-     * @param scheduler The scheduler that handles entries and servers.
+     * Initializes the policy before the first job arrives.
+     * @param scheduler The scheduler that handles jobs and servers. All its servers are idle.
+     */
+    void initialize(Scheduler scheduler);
+
+    /**
+     * Selects the server that will handle a job that just arrived.
+     * @param job The handle of the arrived job.
+     * @param scheduler The scheduler that handles jobs and servers.
      * @return The selected server.
      */
-    Server pollServer(Entry entry, Scheduler scheduler);
+    Server onArrival(int job, Scheduler scheduler);
 
-    void putServer(Server server, Scheduler scheduler);
+    /**
+     * Notifies that a job started executing on a server.
+     * @param server The server executing the job.
+     * @param job The handle of the job.
+     * @param scheduler The scheduler that handles jobs and servers.
+     */
+    void onStart(Server server, int job, Scheduler scheduler);
+
+    /**
+     * Notifies that a job finished executing and has been removed from its server.
+     * @param server The server that executed the job.
+     * @param job The handle of the job.
+     * @param scheduler The scheduler that handles jobs and servers.
+     */
+    void onFinish(Server server, int job, Scheduler scheduler);
 }
@@ -0,0 +1,125 @@
+package scheduling.policy;
+
+import scheduling.Scheduler;
+import scheduling.Server;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class that represents the join-the-shortest-queue scheduling policy.
+ * Each job is assigned to a server with the least number of jobs (queued or executing).
+ * Server ids are kept in an array sorted by queue length, together with the position where each length starts.
+ * Since a queue length only changes by one at a time, a server is moved to the adjacent group with a single
+ * swap, so both the selection and the updates take O(1).
+ */
+public class ShortestQueuePolicy implements SchedulingPolicy
+{
+    @Override
+    public void initialize(Scheduler scheduler)
+    {
+        this.servers = scheduler.getServers();
+
+        int serverNumber = this.servers.size();
+
+        this.order = new int[serverNumber];
+        this.positions = new int[serverNumber];
+        this.lengths = new int[serverNumber];
+        this.groupStarts = new int[INITIAL_GROUPS];
+
+        for(int i = 0; i < serverNumber; i++)
+        {
+            this.order[i] = i;
+            this.positions[i] = i;
+        }
+
+        // All the servers are empty: every group with a positive length starts after the last server.
+        Arrays.fill(this.groupStarts, serverNumber);
+        this.groupStarts[0] = 0;
+    }
+
+    @Override
+    public Server onArrival(int job, Scheduler scheduler)
+    {
+        int serverId = this.order[0];
+        int length = this.lengths[serverId];
+
+        if(length + 2 >= this.groupStarts.length)
+        {
+            int oldLength = this.groupStarts.length;
+            this.groupStarts = Arrays.copyOf(this.groupStarts, oldLength * 2);
+            Arrays.fill(this.groupStarts, oldLength, this.groupStarts.length, this.order.length);
+        }
+
+        // Moving the server to the end of its group, which becomes the start of the next one.
+        this.swap(serverId, this.groupStarts[length + 1] - 1);
+        this.groupStarts[length + 1]--;
+        this.lengths[serverId]++;
+
+        return this.servers.get(serverId);
+    }
+
+    @Override
+    public void onStart(Server server, int job, Scheduler scheduler)
+    {
+
+    }
+
+    @Override
+    public void onFinish(Server server, int job, Scheduler scheduler)
+    {
+        int serverId = server.getId();
+        int length = this.lengths[serverId];
+
+        // Moving the server to the start of its group, which becomes the end of the previous one.
+        this.swap(serverId, this.groupStarts[length]);
+        this.groupStarts[length]++;
+        this.lengths[serverId]--;
+    }
+
+    /**
+     * Swaps a server with the server at the given position of the sorted array.
+     * @param serverId The server to move.
+     * @param position The destination position.
+     */
+    private void swap(int serverId, int position)
+    {
+        int other = this.order[position];
+        int current = this.positions[serverId];
+
+        this.order[current] = other;
+        this.positions[other] = current;
+        this.order[position] = serverId;
+        this.positions[serverId] = position;
+    }
+
+    /**
+     * Initial number of queue lengths tracked, it grows when needed.
+     */
+    private static final int INITIAL_GROUPS = 16;
+
+    /**
+     * Servers indexed by id.
+     */
+    private List<Server> servers;
+
+    /**
+     * Server ids sorted by queue length.
+     */
+    private int[] order;
+
+    /**
+     * Position of each server in the sorted array.
+     */
+    private int[] positions;
+
+    /**
+     * Number of jobs in each server.
+     */
+    private int[] lengths;
+
+    /**
+     * Position of the first server with a given queue length in the sorted array.
+     */
+    private int[] groupStarts;
+}
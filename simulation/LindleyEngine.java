@@ -0,0 +1,360 @@
+package simulation;
+
+import config.Category;
+import config.ProjectConfig;
+
+import events.ArrivalStream;
+import events.MergedArrivalProcess;
+
+import utils.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Class that executes a run without an event queue, for round robin dispatch.
+ * With round robin the server of each job depends only on its arrival index, so the run is split in two phases:
+ * first the arrivals of the categories are merged in time order and every job gets its server and its service time,
+ * then the jobs of each server are processed with the Lindley recursion, start = max(arrival, previous finish).
+ * The service time of a job is sampled when it arrives, so the results are the ones of the event engine with
+ * service times sampled at arrival; only the order in which the queuing times are summed differs.
+ * Service sampling and the recursion of the servers run in parallel.
+ */
+public class LindleyEngine
+{
+    /**
+     * Creates an engine.
+     * @param config The configuration of the simulation.
+     * @param categories The categories used by the runs, indexed by id. Their generators and stats are modified.
+     * @param mergedArrivals The merged arrival process, null to draw the arrivals of each category separately.
+     * @param executor The executor that runs the parallel tasks.
+     */
+    public LindleyEngine(ProjectConfig config, List<Category> categories, MergedArrivalProcess mergedArrivals, ExecutorService executor)
+    {
+        this.config = config;
+        this.categories = categories;
+        this.mergedArrivals = mergedArrivals;
+        this.executor = executor;
+
+        int jobs = config.getTotalJobs();
+
+        this.arrivalTimes = new double[jobs];
+        this.serviceTimes = new double[jobs];
+        this.queuingTimes = new double[jobs];
+        this.jobCategories = new int[jobs];
+        this.jobsByCategory = new int[jobs];
+        this.samples = new double[jobs];
+        this.categoryOffsets = new int[config.getCategoriesNumber() + 1];
+    }
+
+    /**
+     * Runs 1 of R simulations, adding its results to the given statistics.
+     * @param stats The configuration that accumulates the statistics of the runs.
+     * @return The time at which the last job finishes.
+     */
+    public double run(ProjectConfig stats)
+    {
+        this.mergeArrivals();
+        this.sampleServiceTimes();
+
+        double eta = this.computeQueuingTimes();
+
+        // Adding stats in arrival order, the same for any number of threads.
+        for(int job = 0; job < this.arrivalTimes.length; job++)
+        {
+            this.categories.get(this.jobCategories[job]).addStats(this.queuingTimes[job], this.serviceTimes[job]);
+            stats.addJobQueuingTime(this.queuingTimes[job]);
+        }
+
+        stats.addEndTime(eta);
+
+        // Adding stats to the project and cleaning each category stats.
+        for(Category category: categories)
+        {
+            stats.addCategoryStats(category.getId(), category.getAvgQueuingTime(), category.getAvgServiceTime(), category.getProcessedCategories());
+            category.clearStats();
+        }
+
+        return eta;
+    }
+
+    /**
+     * Merges the arrivals of the categories in time order, recording the arrival time and the category of each job,
+     * then groups the jobs by category.
+     */
+    protected void mergeArrivals()
+    {
+        int categoriesNumber = this.categories.size();
+        int jobs = this.arrivalTimes.length;
+
+        for(int i = 0; i <= categoriesNumber; i++)
+        {
+            this.categoryOffsets[i] = 0;
+        }
+
+        if(this.mergedArrivals != null)
+        {
+            this.drawMergedArrivals();
+        }
+        else
+        {
+            this.mergeArrivalStreams();
+        }
+
+        // Grouping the jobs by category, in arrival order.
+        for(int i = 0; i < categoriesNumber; i++)
+        {
+            this.categoryOffsets[i + 1] += this.categoryOffsets[i];
+        }
+
+        int[] positions = this.categoryOffsets.clone();
+
+        for(int job = 0; job < jobs; job++)
+        {
+            this.jobsByCategory[positions[this.jobCategories[job]]++] = job;
+        }
+    }
+
+    /**
+     * Draws the arrivals from the merged arrival process.
+     */
+    protected void drawMergedArrivals()
+    {
+        double time = 0;
+
+        // The category of an arrival is drawn with its time, as the event handler does.
+        for(int job = 0; job < this.arrivalTimes.length; job++)
+        {
+            time = time + this.mergedArrivals.nextInterArrivalTime();
+
+            int categoryId = this.mergedArrivals.nextCategory();
+
+            this.arrivalTimes[job] = time;
+            this.jobCategories[job] = categoryId;
+            this.categoryOffsets[categoryId + 1]++;
+        }
+
+        // Drawing the arrival that the event handler generates after the last job.
+        this.mergedArrivals.nextInterArrivalTime();
+        this.mergedArrivals.nextCategory();
+    }
+
+    /**
+     * Merges the arrival streams of the categories.
+     * The arrival times are generated by worker threads, and the merge breaks ties as the event queue does.
+     */
+    protected void mergeArrivalStreams()
+    {
+        int categoriesNumber = this.categories.size();
+        int jobs = this.arrivalTimes.length;
+        ArrivalStream[] streams = new ArrivalStream[categoriesNumber];
+        IndexedMinHeap next = new IndexedMinHeap(categoriesNumber);
+        double lambdaSum = 0;
+
+        for(Category category: this.categories)
+        {
+            lambdaSum += category.getLambdaArrival();
+        }
+
+        // Each category needs at most one arrival per job plus the last ignored one.
+        for(Category category: this.categories)
+        {
+            long expected = (long)Math.ceil((jobs + 1L) * category.getLambdaArrival() / lambdaSum * 1.1);
+
+            streams[category.getId()] = new ArrivalStream(category, jobs + 1L, expected, this.executor);
+            next.add(category.getId(), streams[category.getId()].next());
+        }
+
+        for(int job = 0; job < jobs; job++)
+        {
+            int categoryId = next.peek();
+
+            this.arrivalTimes[job] = next.peekKey();
+            this.jobCategories[job] = categoryId;
+            this.categoryOffsets[categoryId + 1]++;
+
+            next.update(categoryId, streams[categoryId].next());
+        }
+
+        // Bringing the arrival generators to the state expected by the next run.
+        for(ArrivalStream stream: streams)
+        {
+            stream.close();
+        }
+    }
+
+    /**
+     * Samples the service times of the jobs, one task per category.
+     * Each category draws its samples in the arrival order of its jobs.
+     */
+    protected void sampleServiceTimes()
+    {
+        List<Callable<Void>> tasks = new ArrayList<>(this.categories.size());
+
+        for(Category category: this.categories)
+        {
+            tasks.add(() ->
+            {
+                int from = this.categoryOffsets[category.getId()];
+                int to = this.categoryOffsets[category.getId() + 1];
+
+                category.drainBuffers();
+                category.getSampler().fill(category.getServiceGenerator(), this.samples, from, to, category.getLambdaService(), category.getMeanService());
+
+                for(int i = from; i < to; i++)
+                {
+                    this.serviceTimes[this.jobsByCategory[i]] = this.samples[i];
+                }
+
+                return null;
+            });
+        }
+
+        this.invokeAll(tasks);
+    }
+
+    /**
+     * Computes the queuing time of every job with the Lindley recursion, one task per block of servers.
+     * @return The time at which the last job finishes.
+     */
+    protected double computeQueuingTimes()
+    {
+        int serverNumber = this.config.getServerNumber();
+        int jobs = this.arrivalTimes.length;
+        int blocks = Math.min(serverNumber, Runtime.getRuntime().availableProcessors() * BLOCKS_PER_THREAD);
+        double[] blockEta = new double[blocks];
+        List<Callable<Void>> tasks = new ArrayList<>(blocks);
+
+        for(int b = 0; b < blocks; b++)
+        {
+            int block = b;
+
+            tasks.add(() ->
+            {
+                int first = (int)((long)serverNumber * block / blocks);
+                int last = (int)((long)serverNumber * (block + 1) / blocks);
+                double eta = 0;
+
+                // Round robin: the jobs of server s are s, s + K, s + 2K, ...
+                for(int server = first; server < last; server++)
+                {
+                    double finish = 0;
+
+                    for(int job = server; job < jobs; job += serverNumber)
+                    {
+                        double start = Math.max(this.arrivalTimes[job], finish);
+
+                        this.queuingTimes[job] = start - this.arrivalTimes[job];
+                        finish = start + this.serviceTimes[job];
+                    }
+
+                    eta = Math.max(eta, finish);
+                }
+
+                blockEta[block] = eta;
+
+                return null;
+            });
+        }
+
+        this.invokeAll(tasks);
+
+        double eta = 0;
+
+        for(double value: blockEta)
+        {
+            eta = Math.max(eta, value);
+        }
+
+        return eta;
+    }
+
+    /**
+     * Executes the tasks and waits for all of them.
+     * @param tasks The tasks to execute.
+     * @throws IllegalStateException If a task fails.
+     */
+    protected void invokeAll(List<Callable<Void>> tasks) throws IllegalStateException
+    {
+        try
+        {
+            for(Future<Void> future: this.executor.invokeAll(tasks))
+            {
+                future.get();
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the tasks", e);
+        }
+        catch(ExecutionException e)
+        {
+            throw new IllegalStateException("Task failed", e.getCause());
+        }
+    }
+
+    /**
+     * Number of blocks of servers for each available processor, to balance the load.
+     */
+    private static final int BLOCKS_PER_THREAD = 4;
+
+    /**
+     * Project configuration class
+     */
+    private final ProjectConfig config;
+
+    /**
+     * Array of job categories.
+     */
+    private final List<Category> categories;
+
+    /**
+     * The merged arrival process, null if the arrivals of each category are drawn separately.
+     */
+    private final MergedArrivalProcess mergedArrivals;
+
+    /**
+     * The executor that runs the parallel tasks.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Arrival time of each job, in arrival order.
+     */
+    private final double[] arrivalTimes;
+
+    /**
+     * Service time of each job.
+     */
+    private final double[] serviceTimes;
+
+    /**
+     * Queuing time of each job.
+     */
+    private final double[] queuingTimes;
+
+    /**
+     * Category of each job.
+     */
+    private final int[] jobCategories;
+
+    /**
+     * Jobs grouped by category, each group in arrival order.
+     */
+    private final int[] jobsByCategory;
+
+    /**
+     * Service times grouped by category, as they are drawn.
+     */
+    private final double[] samples;
+
+    /**
+     * Offset of the group of each category in jobsByCategory, with one extra entry for the end of the last group.
+     */
+    private final int[] categoryOffsets;
+}
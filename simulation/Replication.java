@@ -0,0 +1,504 @@
+package simulation;
+
+import config.Category;
+import config.ProjectConfig;
+import config.SimulationOptions;
+
+import events.EventHandler;
+import events.JobTable;
+import events.MergedArrivalProcess;
+
+import monitoring.QueueGauge;
+import monitoring.RunEvent;
+import monitoring.SimulationProgress;
+
+import scheduling.Scheduler;
+import scheduling.Server;
+import scheduling.ServerDiscipline;
+
+import scheduling.policy.CustomPolicy;
+import scheduling.policy.DefaultPolicy;
+import scheduling.policy.JoinIdleQueuePolicy;
+import scheduling.policy.LeastWorkLeftPolicy;
+import scheduling.policy.PowerOfChoicesPolicy;
+import scheduling.policy.SchedulingPolicy;
+import scheduling.policy.ShortestQueuePolicy;
+
+import trace.TraceSink;
+
+import utils.RandomGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class that executes the runs of a simulation on a given set of categories.
+ * It owns all the per-run state (job table, servers, event handler, scheduler), so that independent replications
+ * can execute concurrently, each with its own instance and its own categories. The job table and the servers are
+ * reused by consecutive runs of the same instance.
+ * Runs are executed by the event engine, or by the Lindley engine when it is selected. The Lindley engine does not
+ * record the history, so simulations with short output always use the event engine.
+ * Every run emits a flight recorder RunEvent, and the event engine emits the periodic QueueGaugeEvent while it runs.
+ * When a progress is set, the event engine publishes a snapshot to it every SNAPSHOT_PERIOD events.
+ */
+public class Replication
+{
+    /**
+     * Creates a replication.
+     * @param config The configuration of the simulation.
+     * @param options The options of the simulation.
+     * @param categories The categories used by the runs, indexed by id. Their generators and stats are modified.
+     * @param dispatchGenerator Random generator used by randomized scheduling policies.
+     * @throws IllegalArgumentException If the Lindley engine is selected for a policy or a discipline that depends on
+     *                                  the state of the servers.
+     */
+    public Replication(ProjectConfig config, SimulationOptions options, List<Category> categories, RandomGenerator dispatchGenerator) throws IllegalArgumentException
+    {
+        this(config, options, categories, dispatchGenerator, null);
+    }
+
+    /**
+     * Creates a replication that records the events of its runs in a trace.
+     * @param config The configuration of the simulation.
+     * @param options The options of the simulation.
+     * @param categories The categories used by the runs, indexed by id. Their generators and stats are modified.
+     * @param dispatchGenerator Random generator used by randomized scheduling policies.
+     * @param trace The trace sink, null to disable tracing.
+     * @throws IllegalArgumentException If the Lindley engine is selected for a policy or a discipline that depends on
+     *                                  the state of the servers, or together with a trace.
+     */
+    public Replication(ProjectConfig config, SimulationOptions options, List<Category> categories, RandomGenerator dispatchGenerator,
+                       TraceSink trace) throws IllegalArgumentException
+    {
+        this.config = config;
+        this.options = options;
+        this.categories = categories;
+        this.dispatchGenerator = dispatchGenerator;
+        this.trace = trace;
+
+        this.history = new ArrayList<>();
+        this.runCount = 0;
+        this.progress = null;
+        this.firstRun = 0;
+        this.jobs = new JobTable(Math.min(config.getTotalJobs(), INITIAL_JOB_CAPACITY));
+        this.servers = new Server[config.getServerNumber()];
+        this.sizeAware = options.isSizeAware() || config.getSchedulingPolicy() == 5;
+        this.mergedArrivals = options.isMergedArrivals() ? new MergedArrivalProcess(categories) : null;
+
+        // Creating K servers, reused by every run.
+        for(int i = 0; i < this.servers.length; i++)
+        {
+            this.servers[i] = new Server(i, options.getDiscipline(), this.jobs);
+        }
+
+        if(options.getEngine() == SimulationEngine.LINDLEY && !config.hasShortOutput())
+        {
+            if(config.getSchedulingPolicy() != 0 || options.getDiscipline() != ServerDiscipline.FIFO)
+            {
+                throw new IllegalArgumentException("The Lindley engine supports only round robin with FIFO servers");
+            }
+
+            if(trace != null)
+            {
+                throw new IllegalArgumentException("The Lindley engine does not support traces");
+            }
+
+            this.lindleyEngine = new LindleyEngine(config, categories, this.mergedArrivals, ForkJoinPool.commonPool());
+        }
+        else
+        {
+            this.lindleyEngine = null;
+        }
+    }
+
+    /**
+     * Runs 1 of R simulations, adding its results to the given statistics.
+     * @param stats The configuration that accumulates the statistics of the runs.
+     */
+    public void run(ProjectConfig stats)
+    {
+        RunEvent runEvent = new RunEvent();
+        runEvent.begin();
+
+        if(this.progress != null)
+        {
+            this.progress.beginRun(this.firstRun + this.runCount);
+        }
+
+        if(this.lindleyEngine != null)
+        {
+            double eta = this.lindleyEngine.run(stats);
+
+            this.commitRun(runEvent, SimulationEngine.LINDLEY, 2L * this.config.getTotalJobs(), eta);
+
+            if(this.progress != null)
+            {
+                this.progress.completeRun(2L * this.config.getTotalJobs(), eta);
+            }
+
+            return;
+        }
+
+        // Reusing the job table of the previous runs
+        this.jobs.clear();
+
+        if(this.trace != null)
+        {
+            this.trace.beginRun();
+        }
+
+        // Creating an event handler, each category needs at most one arrival event per job plus the last ignored one.
+        if(this.mergedArrivals != null)
+        {
+            this.evtHandler = new EventHandler(this.categories, config.getServerNumber(), this.jobs, options.getEventQueueType(), this.mergedArrivals);
+        }
+        else if(options.isPrefetchArrivals())
+        {
+            this.evtHandler = new EventHandler(this.categories, config.getServerNumber(), this.jobs, options.getEventQueueType(),
+                    config.getTotalJobs() + 1L, ForkJoinPool.commonPool());
+        }
+        else
+        {
+            this.evtHandler = new EventHandler(this.categories, config.getServerNumber(), this.jobs, options.getEventQueueType());
+        }
+
+        // Initializing jobs.
+        this.initializeJobs();
+
+        // Creating a new scheduler.
+        List<Server> servers = this.createServers();
+        Scheduler scheduler = new Scheduler(servers, this.evtHandler, this.createPolicy(), this.jobs, this.categories, this.trace);
+        QueueGauge gauge = new QueueGauge(this.evtHandler, servers);
+
+        double currentEta = 0;
+        int sinceSnapshot = 0;
+        long reportedEvents = 0;
+
+        gauge.start();
+
+        try
+        {
+            // Running until all jobs are finished
+            while(this.evtHandler.hasEvent())
+            {
+                int slot = this.evtHandler.remove();
+                double time = this.evtHandler.getTime(slot);
+
+                // Publishing a snapshot of the run now and then, the loop itself never synchronizes.
+                if(++sinceSnapshot == SimulationProgress.SNAPSHOT_PERIOD)
+                {
+                    sinceSnapshot = 0;
+
+                    if(this.progress != null)
+                    {
+                        long events = (long)scheduler.getArrivedJobs() + scheduler.getFinishedJobs();
+
+                        this.progress.snapshot(events - reportedEvents, scheduler.getArrivedJobs(), scheduler.getFinishedJobs(), time, this.evtHandler.size());
+                        reportedEvents = events;
+                    }
+                }
+
+                if(this.evtHandler.isArrival(slot))
+                {
+                    // If we already reached the total number of jobs to handle we just ignore the event.
+                    if(scheduler.getArrivedJobs() < this.config.getTotalJobs())
+                    {
+                        Category category = this.evtHandler.getCategory(slot);
+                        int job = this.jobs.allocate(category.getId(), time);
+
+                        this.evtHandler.generateArrivalEvent(category, time);
+
+                        if(this.sizeAware)
+                        {
+                            this.evtHandler.generateServiceTime(job);
+                        }
+
+                        scheduler.scheduleArrival(job);
+
+                        this.pushToHistory(time, 0, category.getId());
+                    }
+
+                }
+                else
+                {
+                    int job = this.evtHandler.getFinishedJob(slot);
+
+                    // Scheduling the finish event
+                    scheduler.scheduleFinish(job);
+
+                    currentEta = time;
+
+                    double delta = this.jobs.getStartTime(job) - this.jobs.getArrivalTime(job);
+                    double serviceTime = this.jobs.getServiceTime(job);
+                    Category category = this.categories.get(this.jobs.getCategory(job));
+
+                    // Adding queuing time for category-related stats
+                    category.addStats(delta, serviceTime);
+
+                    // Adding queuing time for job-related stats
+                    stats.addJobQueuingTime(delta);
+
+                    pushToHistory(time, serviceTime, category.getId());
+
+                    this.jobs.release(job);
+                }
+            }
+        }
+        finally
+        {
+            gauge.stop();
+        }
+
+        // Bringing the arrival generators to the state expected by the next run.
+        this.evtHandler.close();
+
+        stats.addEndTime(currentEta);
+
+        // Adding stats to the project and cleaning each category stats.
+        for(Category category: categories)
+        {
+            stats.addCategoryStats(category.getId(), category.getAvgQueuingTime(), category.getAvgServiceTime(), category.getProcessedCategories());
+            category.clearStats();
+        }
+
+        long events = (long)scheduler.getArrivedJobs() + scheduler.getFinishedJobs();
+
+        this.commitRun(runEvent, SimulationEngine.EVENT, events, currentEta);
+
+        if(this.progress != null)
+        {
+            this.progress.completeRun(events - reportedEvents, currentEta);
+        }
+    }
+
+    /**
+     * Sets the progress to which the runs publish their snapshots, and the index in the simulation of the next run,
+     * also reported by the run events.
+     * @param progress The progress, null to disable the snapshots.
+     * @param firstRun The index in the simulation of the next run of the replication.
+     */
+    public void setProgress(SimulationProgress progress, int firstRun)
+    {
+        this.progress = progress;
+        this.firstRun = firstRun - this.runCount;
+    }
+
+    /**
+     * Completes and commits the flight recorder event of a run, if it is enabled.
+     * @param runEvent The event, begun at the start of the run.
+     * @param engine The engine that executed the run.
+     * @param events The number of arrivals and finishes processed.
+     * @param eta The time at which the last job finished.
+     */
+    private void commitRun(RunEvent runEvent, SimulationEngine engine, long events, double eta)
+    {
+        runEvent.end();
+
+        if(runEvent.shouldCommit())
+        {
+            runEvent.run = this.firstRun + this.runCount;
+            runEvent.engine = engine.name();
+            runEvent.policy = this.config.getSchedulingPolicy();
+            runEvent.events = events;
+            runEvent.endTime = eta;
+            runEvent.commit();
+        }
+
+        this.runCount++;
+    }
+
+    /**
+     * Returns the events recorded in the history, in time order.
+     * Events are recorded only if the configuration has short output.
+     * @return The recorded events.
+     */
+    public List<HistoryEntry> getHistory()
+    {
+        return this.history;
+    }
+
+    /**
+     * Initializes the initial jobs.
+     */
+    protected void initializeJobs()
+    {
+        // Initializing jobs
+        this.evtHandler.initializeArrivals();
+    }
+
+    /**
+     * Creates the scheduling policy selected in the configuration.
+     * 0: round robin, 1: least estimated waiting time, 2: join the shortest queue,
+     * 3: power of d choices, 4: join idle queue with power of d choices as fallback, 5: least work left.
+     * @return The scheduling policy.
+     * @throws IllegalArgumentException If the policy type is not valid.
+     */
+    protected SchedulingPolicy createPolicy() throws IllegalArgumentException
+    {
+        switch(config.getSchedulingPolicy())
+        {
+            case 0:
+                return new DefaultPolicy();
+            case 1:
+                return new CustomPolicy();
+            case 2:
+                return new ShortestQueuePolicy();
+            case 3:
+                return new PowerOfChoicesPolicy(options.getChoices(), this.dispatchGenerator);
+            case 4:
+                return new JoinIdleQueuePolicy(new PowerOfChoicesPolicy(options.getChoices(), this.dispatchGenerator));
+            case 5:
+                return new LeastWorkLeftPolicy();
+            default:
+                throw new IllegalArgumentException("Invalid scheduling policy " + config.getSchedulingPolicy());
+        }
+    }
+
+    /**
+     * Creates the list of servers used by a run, resetting the servers of the previous runs.
+     * @return The list of servers, indexed by id.
+     */
+    protected List<Server> createServers()
+    {
+        List<Server> servers = new ArrayList<>(this.servers.length);
+
+        // Adding the K servers, in their initial state.
+        for(Server server: this.servers)
+        {
+            server.reset();
+            servers.add(server);
+        }
+
+        return servers;
+    }
+
+    /**
+     * Pushes an event to history.
+     * @param time The time of the event.
+     * @param serviceTime The service time of the job, 0 for arrivals.
+     * @param categoryId The category of the job.
+     */
+    protected void pushToHistory(double time, double serviceTime, int categoryId)
+    {
+        if(config.hasShortOutput())
+        {
+            history.add(new HistoryEntry(time, serviceTime, categoryId));
+        }
+    }
+
+    /**
+     * Event recorded in the history.
+     */
+    public static class HistoryEntry
+    {
+        /**
+         * Time of the event.
+         */
+        public final double time;
+
+        /**
+         * Service time of the job, 0 for arrivals.
+         */
+        public final double serviceTime;
+
+        /**
+         * Category of the job.
+         */
+        public final int categoryId;
+
+        /**
+         * Creates an entry.
+         * @param time The time of the event.
+         * @param serviceTime The service time of the job, 0 for arrivals.
+         * @param categoryId The category of the job.
+         */
+        public HistoryEntry(double time, double serviceTime, int categoryId)
+        {
+            this.time = time;
+            this.serviceTime = serviceTime;
+            this.categoryId = categoryId;
+        }
+    }
+
+    /**
+     * Number of jobs the job table can hold before growing.
+     */
+    private static final int INITIAL_JOB_CAPACITY = 1024;
+
+    /**
+     * Project configuration class
+     */
+    private final ProjectConfig config;
+
+    /**
+     * Options of the simulation.
+     */
+    private final SimulationOptions options;
+
+    /**
+     * Array of job categories.
+     */
+    private final List<Category> categories;
+
+    /**
+     * Random generator used by randomized scheduling policies, its state carries over between runs.
+     */
+    private final RandomGenerator dispatchGenerator;
+
+    /**
+     * History is useful to track the state of some simulations.
+     * In all other cases this array remains empty.
+     */
+    private final List<HistoryEntry> history;
+
+    /**
+     * Table that stores the jobs, reused across runs.
+     */
+    private final JobTable jobs;
+
+    /**
+     * Servers indexed by id, reused across runs.
+     */
+    private final Server[] servers;
+
+    /**
+     * If service times are sampled when jobs arrive.
+     */
+    private final boolean sizeAware;
+
+    /**
+     * Merged arrival process of all the categories, null if the arrivals of each category are drawn separately.
+     */
+    private final MergedArrivalProcess mergedArrivals;
+
+    /**
+     * Engine that executes the runs in place of the event engine, null if the event engine is used.
+     */
+    private final LindleyEngine lindleyEngine;
+
+    /**
+     * Sink of the trace of the runs, null if tracing is disabled.
+     */
+    private final TraceSink trace;
+
+    /**
+     * Event handler.
+     */
+    private EventHandler evtHandler;
+
+    /**
+     * Number of runs executed by the replication.
+     */
+    private int runCount;
+
+    /**
+     * Progress to which the runs publish their snapshots, null if there is none.
+     */
+    private SimulationProgress progress;
+
+    /**
+     * Index in the simulation of the first run of the replication, 0 until the progress is set.
+     */
+    private int firstRun;
+}
@@ -0,0 +1,29 @@
+package simulation;
+
+/**
+ * Available engines that execute a run.
+ */
+public enum SimulationEngine
+{
+    /**
+     * Discrete event simulation, it supports every policy.
+     */
+    EVENT,
+
+    /**
+     * Two-phase engine based on the Lindley recursion, it supports only policies that do not depend on the state of
+     * the servers.
+     */
+    LINDLEY;
+
+    /**
+     * Returns the engine with the given name, ignoring case.
+     * @param name The name of the engine.
+     * @return The engine.
+     * @throws IllegalArgumentException If there is no engine with the given name.
+     */
+    public static SimulationEngine fromName(String name) throws IllegalArgumentException
+    {
+        return SimulationEngine.valueOf(name.toUpperCase());
+    }
+}
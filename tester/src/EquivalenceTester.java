@@ -0,0 +1,242 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.file.Files;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class used to check that alternative implementations produce exactly the same output.
+ * Every input of the /input folder, subfolders included, is simulated once for each variant, a list of options
+ * added to the command line, and the outputs must be identical byte by byte to the one of the first variant.
+ * Options in a file named "options" are added to the command line of the inputs in the same folder.
+ * A file named "variants", with one variant per line, replaces the variants compared in its folder and subfolders.
+ * Usage: EquivalenceTester build_command [variant...]
+ * The build command is split on spaces; each variant is a comma-separated list of options, possibly empty. The
+ * default variants are the event queues: heap (the reference, same output as the original engine), indexed and
+ * calendar. The exit status is 1 if any output differs.
+ * @author Alessio Checchin
+ */
+public class EquivalenceTester
+{
+    /**
+     * Event queues compared by default, the first one is the reference.
+     */
+    public static final String[] DEFAULT_VARIANTS = {"--event-queue=heap", "--event-queue=indexed", "--event-queue=calendar"};
+
+    /**
+     * EquivalenceTester constructor.
+     * @param basePath Path to the folder that contains the /input folder.
+     * @param buildCommand Command used to execute the program to test, split in arguments.
+     * @param variants The variants to compare, each one a list of options.
+     */
+    public EquivalenceTester(String basePath, List<String> buildCommand, List<List<String>> variants)
+    {
+        this.inputDir = new File(basePath, "input");
+        this.buildCommand = buildCommand;
+        this.variants = variants;
+        this.failures = 0;
+    }
+
+    /**
+     * Compares the variants on every input.
+     * @return The number of inputs whose outputs differ or could not be produced.
+     */
+    public int run()
+    {
+        this.processTree(this.inputDir, new ArrayList<>(), this.variants);
+
+        return this.failures;
+    }
+
+    /**
+     * Compares the variants on the inputs of a folder and of its subfolders.
+     * @param root The folder.
+     * @param options The options of the parent folders.
+     * @param variants The variants of the parent folder.
+     */
+    protected void processTree(File root, List<String> options, List<List<String>> variants)
+    {
+        File[] list = root.listFiles();
+
+        if(list == null) return;
+
+        Arrays.sort(list);
+
+        List<String> folderOptions = new ArrayList<>(options);
+        List<List<String>> folderVariants;
+
+        try
+        {
+            folderOptions.addAll(readOptions(root));
+            folderVariants = readVariants(root, variants);
+        }
+        catch(IOException e)
+        {
+            System.out.printf("%s[CRITICAL] Cannot read the options of %s: %s%s%n", ConsoleColors.RED_BOLD_BRIGHT, root, e.getMessage(), ConsoleColors.RESET);
+            this.failures++;
+            return;
+        }
+
+        for(File element: list)
+        {
+            if(element.isDirectory())
+            {
+                this.processTree(element, folderOptions, folderVariants);
+            }
+            else if(element.getName().endsWith(".in") || element.getName().endsWith(".scn"))
+            {
+                this.processFile(element, folderOptions, folderVariants);
+            }
+        }
+    }
+
+    /**
+     * Runs every variant on an input and compares the outputs with the one of the first variant.
+     * @param file Input file.
+     * @param options The options of the folder of the file.
+     * @param variants The variants of the folder of the file.
+     */
+    protected void processFile(File file, List<String> options, List<List<String>> variants)
+    {
+        System.out.printf(">> Processing %s...", this.inputDir.toPath().relativize(file.toPath()));
+
+        try
+        {
+            byte[] reference = null;
+
+            for(List<String> variant: variants)
+            {
+                byte[] output = this.execute(file, options, variant);
+
+                if(reference == null)
+                {
+                    reference = output;
+                }
+                else if(!Arrays.equals(reference, output))
+                {
+                    System.out.printf("%s[FAIL]%s %s differs from %s%n", ConsoleColors.RED_BOLD_BRIGHT, ConsoleColors.RESET, variant, variants.get(0));
+                    this.failures++;
+                    return;
+                }
+            }
+
+            System.out.printf("%s[OK]%s%n", ConsoleColors.GREEN_BOLD_BRIGHT, ConsoleColors.RESET);
+        }
+        catch(IOException e)
+        {
+            System.out.printf("%s[CRITICAL] IOException caught: %s%s%n", ConsoleColors.RED_BOLD_BRIGHT, e.getMessage(), ConsoleColors.RESET);
+            this.failures++;
+        }
+    }
+
+    /**
+     * Runs the program on an input and returns its output.
+     * @param file Input file.
+     * @param options The options of the folder of the file.
+     * @param variant The options of the variant.
+     * @return The bytes written to stdout.
+     * @throws IOException If the program cannot be started or exits with an error.
+     */
+    protected byte[] execute(File file, List<String> options, List<String> variant) throws IOException
+    {
+        List<String> command = new ArrayList<>(this.buildCommand);
+        command.addAll(options);
+        command.addAll(variant);
+        command.add(file.getPath());
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        byte[] output;
+
+        try(InputStream stdout = process.getInputStream())
+        {
+            output = stdout.readAllBytes();
+        }
+
+        try
+        {
+            if(process.waitFor() != 0) throw new IOException(variant + " exited with status " + process.exitValue());
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + variant, e);
+        }
+
+        return output;
+    }
+
+    /**
+     * Reads the options of a folder.
+     * @param folder The folder.
+     * @return The options in the "options" file of the folder, empty if there is none.
+     * @throws IOException If there are errors while reading the file.
+     */
+    public static List<String> readOptions(File folder) throws IOException
+    {
+        File file = new File(folder, "options");
+
+        if(!file.isFile()) return List.of();
+
+        String content = Files.readString(file.toPath()).trim();
+
+        return content.isEmpty() ? List.of() : Arrays.asList(content.split("\\s+"));
+    }
+
+    /**
+     * Reads the variants of a folder.
+     * @param folder The folder.
+     * @param variants The variants of the parent folder.
+     * @return The variants in the "variants" file of the folder, the ones of the parent folder if there is none.
+     * @throws IOException If there are errors while reading the file.
+     */
+    public static List<List<String>> readVariants(File folder, List<List<String>> variants) throws IOException
+    {
+        File file = new File(folder, "variants");
+
+        if(!file.isFile()) return variants;
+
+        List<List<String>> result = new ArrayList<>();
+
+        for(String line: Files.readAllLines(file.toPath()))
+        {
+            line = line.trim();
+
+            if(!line.isEmpty()) result.add(Arrays.asList(line.split("\\s+")));
+        }
+
+        return result;
+    }
+
+    public static void main(String[] args)
+    {
+        if(args.length < 1)
+        {
+            System.out.println("Usage: EquivalenceTester build_command [variant...]");
+            return;
+        }
+
+        List<List<String>> variants = new ArrayList<>();
+
+        for(String variant: args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : DEFAULT_VARIANTS)
+        {
+            variants.add(variant.isEmpty() ? List.of() : Arrays.asList(variant.split(",")));
+        }
+
+        int failures = new EquivalenceTester(System.getProperty("user.dir"), Arrays.asList(args[0].trim().split("\\s+")), variants).run();
+
+        if(failures > 0)
+        {
+            System.out.printf("%d inputs with different outputs%n", failures);
+            System.exit(1);
+        }
+    }
+
+    private final File inputDir;
+    private final List<String> buildCommand;
+    private final List<List<String>> variants;
+    private int failures;
+}
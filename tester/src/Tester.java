@@ -56,7 +56,7 @@ public class Tester
                 }
             }
         }
-        else
+        else if(!root.getName().equals("options") && !root.getName().equals("variants"))
         {
             this.processFile(root, subpath);
         }
@@ -67,6 +67,8 @@ public class Tester
     /**
      * Runs the tester against the provided input file.
      * It runs the program to test and compares the result (from stdout) with the expected output file.
+     * Options in a file named "options" in the folder of the input, or in one of its parents, are passed to the
+     * program before the input file.
      * @param file Input file.
      * @param subpath The subpath relative to the input directory that contains the file.
      */
@@ -82,7 +84,7 @@ public class Tester
         try
         {
             // Formatting output from stdout
-            Output testOutput = new Output(this.readStdout(this.buildCommand + " " + file.getPath()), EPSILON);
+            Output testOutput = new Output(this.readStdout(this.buildCommand + this.getOptions(file.getParentFile()) + " " + file.getPath()), EPSILON);
 
             // Formatting output from output file (this file is considered correct)
             Output correctOutput = new Output(this.readOutputFile(this.outputDir + subpath + "output" + fileSkeleton + ".out"), EPSILON);
@@ -112,6 +114,31 @@ public class Tester
         }
     }
 
+    /**
+     * Returns the options of a folder of the input directory and of its parents.
+     * @param folder The folder.
+     * @return The options, each one preceded by a space.
+     * @throws IOException If there are errors while reading an options file.
+     */
+    protected String getOptions(File folder) throws IOException
+    {
+        StringBuilder builder = new StringBuilder();
+
+        if(folder == null) return "";
+
+        if(!folder.getCanonicalFile().equals(new File(this.inputDir).getCanonicalFile()))
+        {
+            builder.append(this.getOptions(folder.getParentFile()));
+        }
+
+        for(String option: EquivalenceTester.readOptions(folder))
+        {
+            builder.append(' ').append(option);
+        }
+
+        return builder.toString();
+    }
+
     /**
      * Reads output file
      * @param path The path of the file to read.
@@ -182,7 +209,8 @@ public class Tester
     {
         //String buildCommand = "\"C:\\Program Files\\Java\\jdk-17\\bin\\java.exe\" \"-javaagent:C:\\Program Files\\JetBrains\\IntelliJ IDEA 2023.2\\lib\\idea_rt.jar=56514:C:\\Program Files\\JetBrains\\IntelliJ IDEA 2023.2\\bin\" -Dfile.encoding=UTF-8 -classpath C:\\Users\\Utente\\Desktop\\job_scheduler\\out\\production\\job_scheduler Simulator";
 
-        String buildCommand = "java -classpath C:\\Users\\Utente\\Desktop\\Simulator Simulator";
+        // The command can be given as the first argument, e.g. "java -classpath out Simulator".
+        String buildCommand = args.length > 0 ? args[0] : "java -classpath C:\\Users\\Utente\\Desktop\\Simulator Simulator";
 
         new Tester(System.getProperty("user.dir"), buildCommand);
     }
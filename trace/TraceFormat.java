@@ -0,0 +1,122 @@
+package trace;
+
+/**
+ * Layout of the binary trace files.
+ * A trace starts with a header of HEADER_SIZE bytes (magic number, version, record size, number of records),
+ * followed by fixed-width records of RECORD_SIZE bytes, all in little-endian order:
+ * time (double), service time (double, NaN if not known yet), job id (long), category (int), server (int, -1 if not
+ * assigned yet), run (int), type (byte) and padding.
+ * The number of records is an unsigned int written when the trace is closed; the file can be longer than the
+ * records, and the bytes after them must be ignored.
+ */
+public final class TraceFormat
+{
+    /**
+     * The record of the arrival of a job.
+     */
+    public static final byte ARRIVAL = 0;
+
+    /**
+     * The record of the start of the execution of a job.
+     */
+    public static final byte START = 1;
+
+    /**
+     * The record of the end of the execution of a job.
+     */
+    public static final byte FINISH = 2;
+
+    /**
+     * Magic number at the beginning of a trace, "JSTR" in ASCII.
+     */
+    public static final int MAGIC = 0x5254534A;
+
+    /**
+     * Version of the layout.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Size of the header in bytes.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * Offset of the number of records in the header.
+     */
+    public static final int COUNT_OFFSET = 12;
+
+    /**
+     * Maximum number of records of a trace.
+     */
+    public static final long MAX_RECORDS = 0xFFFFFFFFL;
+
+    /**
+     * Size of a record in bytes.
+     */
+    public static final int RECORD_SIZE = 40;
+
+    /**
+     * Offset of the time in a record.
+     */
+    public static final int TIME_OFFSET = 0;
+
+    /**
+     * Offset of the service time in a record.
+     */
+    public static final int SERVICE_TIME_OFFSET = 8;
+
+    /**
+     * Offset of the job id in a record.
+     */
+    public static final int JOB_OFFSET = 16;
+
+    /**
+     * Offset of the category in a record.
+     */
+    public static final int CATEGORY_OFFSET = 24;
+
+    /**
+     * Offset of the server in a record.
+     */
+    public static final int SERVER_OFFSET = 28;
+
+    /**
+     * Offset of the run in a record.
+     */
+    public static final int RUN_OFFSET = 32;
+
+    /**
+     * Offset of the type in a record.
+     */
+    public static final int TYPE_OFFSET = 36;
+
+    /**
+     * Returns the name of a record type.
+     * @param type The type of a record.
+     * @return The name of the type.
+     * @throws IllegalArgumentException If the type is not valid.
+     */
+    public static String typeName(byte type) throws IllegalArgumentException
+    {
+        switch(type)
+        {
+            case ARRIVAL:
+                return "arrival";
+            case START:
+                return "start";
+            case FINISH:
+                return "finish";
+            default:
+                throw new IllegalArgumentException("Invalid record type " + type);
+        }
+    }
+
+    /**
+     * Not instantiable.
+     */
+    private TraceFormat()
+    {
+
+    }
+}
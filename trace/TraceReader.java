@@ -0,0 +1,147 @@
+package trace;
+
+import utils.AsciiWriter;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of binary trace files, that converts them to CSV.
+ * The file is mapped in windows, so traces of any size are converted with constant heap usage.
+ * Usage: TraceReader trace_file [csv_file]; without a CSV file the output goes to the standard output.
+ */
+public class TraceReader implements Closeable
+{
+    /**
+     * Opens a trace.
+     * @param path The path of the trace file.
+     * @throws IOException If the file cannot be read or it is not a trace.
+     */
+    public TraceReader(Path path) throws IOException
+    {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        long size = this.channel.size();
+        MappedByteBuffer header = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, TraceFormat.HEADER_SIZE));
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        if(size < TraceFormat.HEADER_SIZE || header.getInt() != TraceFormat.MAGIC) throw new IOException("Not a trace file");
+        if(header.getInt() != TraceFormat.VERSION) throw new IOException("Unsupported trace version");
+        if(header.getInt() != TraceFormat.RECORD_SIZE) throw new IOException("Invalid record size");
+
+        this.records = Integer.toUnsignedLong(header.getInt(TraceFormat.COUNT_OFFSET));
+
+        if(TraceFormat.HEADER_SIZE + this.records * TraceFormat.RECORD_SIZE > size) throw new IOException("Truncated trace file");
+    }
+
+    /**
+     * Returns the number of records of the trace.
+     * @return The number of records.
+     */
+    public long size()
+    {
+        return this.records;
+    }
+
+    /**
+     * Writes the trace as CSV, with a header line and one line per record.
+     * @param out The writer.
+     * @throws IOException If there are errors while reading or writing.
+     */
+    public void toCsv(AsciiWriter out) throws IOException
+    {
+        out.append("run,type,job,time,service_time,category,server").newLine();
+
+        long record = 0;
+
+        while(record < this.records)
+        {
+            int count = (int)Math.min(this.records - record, RECORDS_PER_WINDOW);
+            long offset = TraceFormat.HEADER_SIZE + record * TraceFormat.RECORD_SIZE;
+            MappedByteBuffer window = this.channel.map(FileChannel.MapMode.READ_ONLY, offset, (long)count * TraceFormat.RECORD_SIZE);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+
+            for(int i = 0; i < count; i++)
+            {
+                int base = i * TraceFormat.RECORD_SIZE;
+
+                out
+                        .append(window.getInt(base + TraceFormat.RUN_OFFSET)).append(',')
+                        .append(TraceFormat.typeName(window.get(base + TraceFormat.TYPE_OFFSET))).append(',')
+                        .append(window.getLong(base + TraceFormat.JOB_OFFSET)).append(',')
+                        .append(window.getDouble(base + TraceFormat.TIME_OFFSET)).append(',');
+
+                double serviceTime = window.getDouble(base + TraceFormat.SERVICE_TIME_OFFSET);
+
+                // Service times not known yet are left empty.
+                if(!Double.isNaN(serviceTime))
+                {
+                    out.append(serviceTime);
+                }
+
+                out
+                        .append(',')
+                        .append(window.getInt(base + TraceFormat.CATEGORY_OFFSET)).append(',')
+                        .append(window.getInt(base + TraceFormat.SERVER_OFFSET)).newLine();
+            }
+
+            record += count;
+        }
+    }
+
+    /**
+     * Closes the trace file.
+     * @throws IOException If there are errors while closing the file.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.channel.close();
+    }
+
+    /**
+     * Number of records mapped at a time.
+     */
+    private static final int RECORDS_PER_WINDOW = 1 << 20;
+
+    /**
+     * Channel of the trace file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Number of records of the trace.
+     */
+    private final long records;
+
+    public static void main(String[] args)
+    {
+        if(args.length < 1 || args.length > 2)
+        {
+            System.out.println("Usage: TraceReader trace_file [csv_file]");
+            return;
+        }
+
+        try(TraceReader reader = new TraceReader(Path.of(args[0]));
+            FileChannel output = args.length == 2
+                    ? FileChannel.open(Path.of(args[1]), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+                    : new FileOutputStream(FileDescriptor.out).getChannel())
+        {
+            AsciiWriter out = new AsciiWriter(output, 1 << 16);
+            reader.toCsv(out);
+            out.flush();
+        }
+        catch(IOException e)
+        {
+            System.out.println("IOException " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sink that appends trace records to a memory-mapped file.
+ * The file is mapped in windows of a fixed number of records; when a window is full the next one is mapped, so the
+ * heap usage is constant for any number of records. The file is never truncated, since some platforms cannot
+ * truncate a file while a part of it is mapped: it keeps the size of the mapped windows and the number of records is
+ * written in the header when the sink is closed. The sink is not thread safe.
+ */
+public class TraceSink implements Closeable
+{
+    /**
+     * Creates a sink, replacing the file if it exists.
+     * @param path The path of the trace file.
+     * @throws IOException If the file cannot be created.
+     */
+    public TraceSink(Path path) throws IOException
+    {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.position = 0;
+        this.run = -1;
+
+        this.map();
+
+        this.window.putInt(TraceFormat.MAGIC);
+        this.window.putInt(TraceFormat.VERSION);
+        this.window.putInt(TraceFormat.RECORD_SIZE);
+        this.window.putInt(0); // Number of records, written by close.
+    }
+
+    /**
+     * Starts a new run: the following records belong to it.
+     */
+    public void beginRun()
+    {
+        this.run++;
+    }
+
+    /**
+     * Appends a record.
+     * @param type The type of the record, one of the types of TraceFormat.
+     * @param time The time of the event.
+     * @param serviceTime The service time of the job, NaN if not known yet.
+     * @param job The id of the job.
+     * @param category The category of the job.
+     * @param server The server of the job, -1 if not assigned yet.
+     * @throws UncheckedIOException If the next window of the file cannot be mapped.
+     */
+    public void append(byte type, double time, double serviceTime, long job, int category, int server) throws UncheckedIOException
+    {
+        if(this.window.remaining() < TraceFormat.RECORD_SIZE)
+        {
+            try
+            {
+                this.map();
+            }
+            catch(IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        this.window.putDouble(time);
+        this.window.putDouble(serviceTime);
+        this.window.putLong(job);
+        this.window.putInt(category);
+        this.window.putInt(server);
+        this.window.putInt(this.run);
+        this.window.put(type);
+        this.window.put((byte)0);
+        this.window.putShort((short)0);
+    }
+
+    /**
+     * Returns the number of bytes written.
+     * @return The size of the trace.
+     */
+    public long size()
+    {
+        return this.position + this.window.position();
+    }
+
+    /**
+     * Writes the number of records in the header and closes the file.
+     * @throws IOException If there are errors while closing the file.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(!this.channel.isOpen()) return;
+
+        try
+        {
+            this.window.force();
+
+            ByteBuffer count = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            count.putInt(0, (int)((this.size() - TraceFormat.HEADER_SIZE) / TraceFormat.RECORD_SIZE));
+
+            while(count.hasRemaining())
+            {
+                this.channel.write(count, TraceFormat.COUNT_OFFSET + count.position());
+            }
+        }
+        finally
+        {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Maps the next window of the file, after the bytes written so far.
+     * @throws IOException If the window cannot be mapped or the trace would exceed the maximum number of records.
+     */
+    private void map() throws IOException
+    {
+        if(this.window != null)
+        {
+            this.position += this.window.position();
+            this.window.force();
+        }
+
+        if(this.position + WINDOW_SIZE > TraceFormat.HEADER_SIZE + TraceFormat.MAX_RECORDS * TraceFormat.RECORD_SIZE)
+        {
+            throw new IOException("Too many trace records");
+        }
+
+        this.window = this.channel.map(FileChannel.MapMode.READ_WRITE, this.position, WINDOW_SIZE);
+        this.window.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Size of a mapped window, a multiple of the record size.
+     */
+    private static final int WINDOW_SIZE = TraceFormat.RECORD_SIZE << 20;
+
+    /**
+     * Channel of the trace file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Current mapped window.
+     */
+    private MappedByteBuffer window;
+
+    /**
+     * Offset of the current window in the file.
+     */
+    private long position;
+
+    /**
+     * Index of the current run.
+     */
+    private int run;
+}
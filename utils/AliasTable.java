@@ -0,0 +1,120 @@
+package utils;
+
+/**
+ * Walker's alias table, to sample an index with probability proportional to its weight in O(1).
+ * The table is built in O(n) with Vose's method: every column holds the probability of keeping its own index and
+ * the index to use otherwise.
+ */
+public class AliasTable
+{
+    /**
+     * Builds the table.
+     * @param weights The weights of the indexes, not negative and with a positive sum.
+     * @throws IllegalArgumentException If the weights are not valid.
+     */
+    public AliasTable(double[] weights) throws IllegalArgumentException
+    {
+        int n = weights.length;
+        double sum = 0;
+
+        for(double weight: weights)
+        {
+            if(!(weight >= 0) || Double.isInfinite(weight)) throw new IllegalArgumentException("Invalid weight " + weight);
+            sum += weight;
+        }
+
+        if(!(sum > 0)) throw new IllegalArgumentException("The sum of the weights must be positive");
+
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+
+        // Scaling the weights so that their average is 1, then pairing the columns below 1 with the ones above.
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+
+        for(int i = 0; i < n; i++)
+        {
+            scaled[i] = weights[i] * n / sum;
+
+            if(scaled[i] < 1)
+            {
+                small[smallSize++] = i;
+            }
+            else
+            {
+                large[largeSize++] = i;
+            }
+        }
+
+        while(smallSize > 0 && largeSize > 0)
+        {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+
+            this.probabilities[less] = scaled[less];
+            this.aliases[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+
+            if(scaled[more] < 1)
+            {
+                small[smallSize++] = more;
+            }
+            else
+            {
+                large[largeSize++] = more;
+            }
+        }
+
+        // The remaining columns are full, up to rounding errors.
+        while(largeSize > 0)
+        {
+            int index = large[--largeSize];
+            this.probabilities[index] = 1;
+            this.aliases[index] = index;
+        }
+
+        while(smallSize > 0)
+        {
+            int index = small[--smallSize];
+            this.probabilities[index] = 1;
+            this.aliases[index] = index;
+        }
+    }
+
+    /**
+     * Samples an index.
+     * A single uniform double selects the column with its integer part and the outcome with its fractional part.
+     * @param generator The random generator.
+     * @return The sampled index.
+     */
+    public int sample(RandomGenerator generator)
+    {
+        double u = generator.nextDouble() * this.probabilities.length;
+        int column = (int)u;
+
+        return u - column < this.probabilities[column] ? column : this.aliases[column];
+    }
+
+    /**
+     * Returns the number of indexes.
+     * @return The number of indexes.
+     */
+    public int size()
+    {
+        return this.probabilities.length;
+    }
+
+    /**
+     * Probability of keeping the index of each column.
+     */
+    private final double[] probabilities;
+
+    /**
+     * Index used by each column when it is not kept.
+     */
+    private final int[] aliases;
+}
@@ -0,0 +1,180 @@
+package utils;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writer of ASCII text to a channel, through a reusable byte buffer.
+ * Numbers are formatted without creating strings: integers digit by digit, doubles with the same algorithm of
+ * Double.toString through a reused StringBuilder, so the text is identical to the one of string concatenation.
+ * Only ASCII characters are supported.
+ */
+public class AsciiWriter implements Flushable
+{
+    /**
+     * Creates a writer.
+     * @param channel The channel to write to. It is not closed by the writer.
+     * @param capacity The size of the buffer in bytes.
+     */
+    public AsciiWriter(WritableByteChannel channel, int capacity)
+    {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(Math.max(capacity, MIN_CAPACITY));
+        this.doubleBuilder = new StringBuilder(32);
+        this.digits = new byte[20];
+    }
+
+    /**
+     * Writes a character.
+     * @param c The character, it must be ASCII.
+     * @return This writer.
+     * @throws IOException If there are errors while writing.
+     */
+    public AsciiWriter append(char c) throws IOException
+    {
+        if(!this.buffer.hasRemaining())
+        {
+            this.drain();
+        }
+
+        this.buffer.put((byte)c);
+
+        return this;
+    }
+
+    /**
+     * Writes a sequence of characters.
+     * @param text The characters, they must be ASCII.
+     * @return This writer.
+     * @throws IOException If there are errors while writing.
+     */
+    public AsciiWriter append(CharSequence text) throws IOException
+    {
+        for(int i = 0; i < text.length(); i++)
+        {
+            this.append(text.charAt(i));
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes an integer in decimal notation.
+     * @param value The integer.
+     * @return This writer.
+     * @throws IOException If there are errors while writing.
+     */
+    public AsciiWriter append(long value) throws IOException
+    {
+        if(value == Long.MIN_VALUE)
+        {
+            return this.append(Long.toString(value));
+        }
+
+        if(value < 0)
+        {
+            this.append('-');
+            value = -value;
+        }
+
+        // Digits are produced from the least significant one.
+        int length = 0;
+
+        do
+        {
+            this.digits[length++] = (byte)('0' + value % 10);
+            value /= 10;
+        }
+        while(value != 0);
+
+        while(length > 0)
+        {
+            this.append((char)this.digits[--length]);
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes a double, with the same text of Double.toString.
+     * @param value The double.
+     * @return This writer.
+     * @throws IOException If there are errors while writing.
+     */
+    public AsciiWriter append(double value) throws IOException
+    {
+        this.doubleBuilder.setLength(0);
+        this.doubleBuilder.append(value);
+
+        return this.append(this.doubleBuilder);
+    }
+
+    /**
+     * Writes the line separator of the platform.
+     * @return This writer.
+     * @throws IOException If there are errors while writing.
+     */
+    public AsciiWriter newLine() throws IOException
+    {
+        return this.append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     * @throws IOException If there are errors while writing.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        this.drain();
+    }
+
+    /**
+     * Writes the content of the buffer to the channel and empties it.
+     * @throws IOException If there are errors while writing.
+     */
+    private void drain() throws IOException
+    {
+        this.buffer.flip();
+
+        while(this.buffer.hasRemaining())
+        {
+            this.channel.write(this.buffer);
+        }
+
+        this.buffer.clear();
+    }
+
+    /**
+     * Minimum size of the buffer.
+     */
+    private static final int MIN_CAPACITY = 64;
+
+    /**
+     * Line separator of the platform.
+     */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * The channel to write to.
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * Buffer of the bytes not written yet.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Builder reused to format doubles.
+     */
+    private final StringBuilder doubleBuilder;
+
+    /**
+     * Digits of the integer being written, in reverse order.
+     */
+    private final byte[] digits;
+}
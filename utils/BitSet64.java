@@ -0,0 +1,123 @@
+package utils;
+
+/**
+ * Fixed-size set of integers in the range [0, size), stored as a long[] bitmap.
+ * Besides constant time add, remove and contains, it keeps a summary bitmap of the non-empty words, so the first
+ * element is found by scanning the summary, one long for every 4096 integers, and then using
+ * Long.numberOfTrailingZeros twice: a single summary word is read when size is at most 4096. It also keeps the
+ * number of elements so that emptiness is checked in O(1).
+ */
+public class BitSet64
+{
+    /**
+     * Creates an empty set.
+     * @param size The number of integers that can be stored. Valid values are in [0, size).
+     */
+    public BitSet64(int size)
+    {
+        this.words = new long[(size + 63) >>> 6];
+        this.summary = new long[(this.words.length + 63) >>> 6];
+        this.count = 0;
+    }
+
+    /**
+     * Adds an integer to the set.
+     * @param index The integer to add.
+     */
+    public void add(int index)
+    {
+        int word = index >>> 6;
+        long mask = 1L << index;
+
+        if((this.words[word] & mask) == 0)
+        {
+            this.words[word] |= mask;
+            this.summary[word >>> 6] |= 1L << word;
+            this.count++;
+        }
+    }
+
+    /**
+     * Removes an integer from the set.
+     * @param index The integer to remove.
+     */
+    public void remove(int index)
+    {
+        int word = index >>> 6;
+        long mask = 1L << index;
+
+        if((this.words[word] & mask) != 0)
+        {
+            this.words[word] &= ~mask;
+            this.count--;
+
+            if(this.words[word] == 0)
+            {
+                this.summary[word >>> 6] &= ~(1L << word);
+            }
+        }
+    }
+
+    /**
+     * Checks if an integer is in the set.
+     * @param index The integer to check.
+     * @return True if the integer is in the set, false otherwise.
+     */
+    public boolean contains(int index)
+    {
+        return (this.words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the smallest integer in the set.
+     * @return The smallest integer, -1 if the set is empty.
+     */
+    public int first()
+    {
+        if(this.count == 0) return -1;
+
+        int block = 0;
+
+        while(this.summary[block] == 0)
+        {
+            block++;
+        }
+
+        int word = (block << 6) + Long.numberOfTrailingZeros(this.summary[block]);
+
+        return (word << 6) + Long.numberOfTrailingZeros(this.words[word]);
+    }
+
+    /**
+     * Checks if the set is empty.
+     * @return True if the set is empty, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return this.count == 0;
+    }
+
+    /**
+     * Returns the number of integers in the set.
+     * @return The number of integers.
+     */
+    public int size()
+    {
+        return this.count;
+    }
+
+    /**
+     * Bitmap words, bit i of word w represents the integer 64 * w + i.
+     */
+    private final long[] words;
+
+    /**
+     * Summary bitmap, bit i of word s is set if word 64 * s + i of the bitmap is not empty.
+     */
+    private final long[] summary;
+
+    /**
+     * Number of integers in the set.
+     */
+    private int count;
+}
@@ -0,0 +1,88 @@
+package utils;
+
+/**
+ * Available methods to sample the exponential distribution.
+ */
+public enum ExponentialSampler
+{
+    /**
+     * Inversion of a 24-bit uniform float, the method of the reference outputs.
+     */
+    LEGACY,
+
+    /**
+     * Ziggurat with 53-bit uniforms: several times faster and more precise, but it gives different sequences.
+     */
+    ZIGGURAT;
+
+    /**
+     * Samples the exponential distribution.
+     * @param generator The random generator.
+     * @param lambda The parameter of the distribution.
+     * @param mean The mean of the distribution, 1 / lambda, precomputed by the caller.
+     * @return The random number.
+     */
+    public double sample(RandomGenerator generator, double lambda, double mean)
+    {
+        if(this == LEGACY)
+        {
+            return generator.exponentialDistribution(lambda);
+        }
+
+        return mean * generator.nextExponential();
+    }
+
+    /**
+     * Fills a range of an array with samples of the exponential distribution, in the order of repeated calls to
+     * sample.
+     * @param generator The random generator.
+     * @param out The array to fill.
+     * @param from The first index to fill (inclusive).
+     * @param to The last index to fill (exclusive).
+     * @param lambda The parameter of the distribution.
+     * @param mean The mean of the distribution, 1 / lambda, precomputed by the caller.
+     */
+    public void fill(RandomGenerator generator, double[] out, int from, int to, double lambda, double mean)
+    {
+        if(this == LEGACY)
+        {
+            generator.fill(out, from, to, lambda);
+        }
+        else
+        {
+            generator.fillExponential(out, from, to, mean);
+        }
+    }
+
+    /**
+     * Advances a generator past the given number of samples, as if they had been drawn.
+     * The legacy method draws exactly one number per sample, so it jumps ahead in O(log count); the ziggurat draws a
+     * variable amount of numbers, so the samples are drawn and discarded.
+     * @param generator The random generator.
+     * @param count The number of samples to skip.
+     */
+    public void skip(RandomGenerator generator, long count)
+    {
+        if(this == LEGACY)
+        {
+            generator.advance(count);
+            return;
+        }
+
+        for(long i = 0; i < count; i++)
+        {
+            generator.nextExponential();
+        }
+    }
+
+    /**
+     * Returns the sampler with the given name, ignoring case.
+     * @param name The name of the sampler.
+     * @return The sampler.
+     * @throws IllegalArgumentException If there is no sampler with the given name.
+     */
+    public static ExponentialSampler fromName(String name) throws IllegalArgumentException
+    {
+        return ExponentialSampler.valueOf(name.toUpperCase());
+    }
+}
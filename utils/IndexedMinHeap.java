@@ -0,0 +1,294 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap of integer identifiers in the range [0, capacity), ordered by a double key.
+ * Each identifier can be stored at most once, and a position map allows removing or updating any
+ * identifier in O(log n) without searching for it.
+ * The sift operations follow the same algorithm used by java.util.PriorityQueue, so that a sequence of
+ * add, poll and remove calls produces the same ordering (ties included) as the equivalent calls on a
+ * PriorityQueue whose elements are compared with Double.compare on the same keys.
+ * Optionally, equal keys are ordered by identifier instead, so that the order does not depend on the history of
+ * the heap.
+ */
+public class IndexedMinHeap
+{
+    /**
+     * Creates an empty heap.
+     * @param capacity The number of identifiers that can be stored. Valid identifiers are in [0, capacity).
+     */
+    public IndexedMinHeap(int capacity)
+    {
+        this(capacity, false);
+    }
+
+    /**
+     * Creates an empty heap.
+     * @param capacity The number of identifiers that can be stored. Valid identifiers are in [0, capacity).
+     * @param tiesById If equal keys are ordered by identifier, smallest first, instead of like a PriorityQueue.
+     */
+    public IndexedMinHeap(int capacity, boolean tiesById)
+    {
+        this.tiesById = tiesById;
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        this.size = 0;
+
+        Arrays.fill(this.positions, -1);
+    }
+
+    /**
+     * Adds an identifier to the heap.
+     * @param id The identifier to add.
+     * @param key The key associated with the identifier.
+     * @throws IllegalStateException If the identifier is already in the heap.
+     */
+    public void add(int id, double key) throws IllegalStateException
+    {
+        if(this.positions[id] != -1) throw new IllegalStateException("Identifier already in heap: " + id);
+
+        this.keys[id] = key;
+        this.siftUp(this.size++, id);
+    }
+
+    /**
+     * Returns the identifier with the smallest key, without removing it.
+     * @return The identifier with the smallest key.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int peek() throws NoSuchElementException
+    {
+        if(this.size == 0) throw new NoSuchElementException();
+
+        return this.heap[0];
+    }
+
+    /**
+     * Returns the smallest key in the heap.
+     * @return The smallest key.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public double peekKey() throws NoSuchElementException
+    {
+        return this.keys[this.peek()];
+    }
+
+    /**
+     * Removes and returns the identifier with the smallest key.
+     * @return The identifier with the smallest key.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int poll() throws NoSuchElementException
+    {
+        int id = this.peek();
+        this.removeAt(0);
+
+        return id;
+    }
+
+    /**
+     * Removes an identifier from the heap.
+     * @param id The identifier to remove.
+     * @throws IllegalStateException If the identifier is not in the heap.
+     */
+    public void remove(int id) throws IllegalStateException
+    {
+        if(this.positions[id] == -1) throw new IllegalStateException("Identifier not in heap: " + id);
+
+        this.removeAt(this.positions[id]);
+    }
+
+    /**
+     * Replaces the key of an identifier already in the heap, restoring the heap order in place.
+     * @param id The identifier to update.
+     * @param key The new key.
+     * @throws IllegalStateException If the identifier is not in the heap.
+     */
+    public void update(int id, double key) throws IllegalStateException
+    {
+        int position = this.positions[id];
+
+        if(position == -1) throw new IllegalStateException("Identifier not in heap: " + id);
+
+        double oldKey = this.keys[id];
+        this.keys[id] = key;
+
+        if(Double.compare(key, oldKey) < 0)
+        {
+            this.siftUp(position, id);
+        }
+        else
+        {
+            this.siftDown(position, id);
+        }
+    }
+
+    /**
+     * Checks if an identifier is in the heap.
+     * @param id The identifier to check.
+     * @return True if the identifier is in the heap, false otherwise.
+     */
+    public boolean contains(int id)
+    {
+        return this.positions[id] != -1;
+    }
+
+    /**
+     * Returns the key associated with an identifier.
+     * The value is meaningful only if the identifier is in the heap or has been removed since the last add.
+     * @param id The identifier.
+     * @return The key of the identifier.
+     */
+    public double getKey(int id)
+    {
+        return this.keys[id];
+    }
+
+    /**
+     * Checks if the heap is empty.
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of identifiers in the heap.
+     * @return The number of identifiers.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Removes all the identifiers from the heap.
+     */
+    public void clear()
+    {
+        for(int i = 0; i < this.size; i++)
+        {
+            this.positions[this.heap[i]] = -1;
+        }
+
+        this.size = 0;
+    }
+
+    /**
+     * Removes the element at a given position of the heap array.
+     * @param i The position to remove.
+     */
+    private void removeAt(int i)
+    {
+        int s = --this.size;
+
+        this.positions[this.heap[i]] = -1;
+
+        if(s != i)
+        {
+            int moved = this.heap[s];
+            this.siftDown(i, moved);
+
+            if(this.heap[i] == moved)
+            {
+                this.siftUp(i, moved);
+            }
+        }
+    }
+
+    /**
+     * Inserts an identifier at position k, moving it up until it is greater than or equal to its parent.
+     * @param k The starting position.
+     * @param id The identifier to insert.
+     */
+    private void siftUp(int k, int id)
+    {
+        while(k > 0)
+        {
+            int parent = (k - 1) >>> 1;
+            int e = this.heap[parent];
+
+            if(this.compare(id, e) >= 0) break;
+
+            this.heap[k] = e;
+            this.positions[e] = k;
+            k = parent;
+        }
+
+        this.heap[k] = id;
+        this.positions[id] = k;
+    }
+
+    /**
+     * Inserts an identifier at position k, moving it down until it is less than or equal to its children.
+     * @param k The starting position.
+     * @param id The identifier to insert.
+     */
+    private void siftDown(int k, int id)
+    {
+        int half = this.size >>> 1;
+
+        while(k < half)
+        {
+            int child = (k << 1) + 1;
+            int c = this.heap[child];
+            int right = child + 1;
+
+            if(right < this.size && this.compare(c, this.heap[right]) > 0)
+            {
+                c = this.heap[child = right];
+            }
+
+            if(this.compare(id, c) <= 0) break;
+
+            this.heap[k] = c;
+            this.positions[c] = k;
+            k = child;
+        }
+
+        this.heap[k] = id;
+        this.positions[id] = k;
+    }
+
+    /**
+     * Compares two identifiers by key, and by identifier if their keys are equal and ties are ordered by identifier.
+     * @param a The first identifier.
+     * @param b The second identifier.
+     * @return A negative number, zero or a positive number if a comes before, together with or after b.
+     */
+    private int compare(int a, int b)
+    {
+        int result = Double.compare(this.keys[a], this.keys[b]);
+
+        return result == 0 && this.tiesById ? Integer.compare(a, b) : result;
+    }
+
+    /**
+     * If equal keys are ordered by identifier.
+     */
+    private final boolean tiesById;
+
+    /**
+     * Heap array of identifiers.
+     */
+    private final int[] heap;
+
+    /**
+     * Keys indexed by identifier.
+     */
+    private final double[] keys;
+
+    /**
+     * Position of each identifier in the heap array, -1 if the identifier is not in the heap.
+     */
+    private final int[] positions;
+
+    /**
+     * Number of identifiers in the heap.
+     */
+    private int size;
+}
@@ -0,0 +1,147 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Growable binary min-heap of integer values ordered by a double key, stored in two parallel primitive arrays.
+ * Unlike IndexedMinHeap, values are not restricted to a range and can be repeated, but they cannot be removed
+ * or updated unless they are at the top of the heap.
+ */
+public class IntDoubleHeap
+{
+    /**
+     * Creates an empty heap.
+     * @param initialCapacity The number of values that can be stored before the heap grows.
+     */
+    public IntDoubleHeap(int initialCapacity)
+    {
+        this.values = new int[Math.max(initialCapacity, 1)];
+        this.keys = new double[this.values.length];
+        this.size = 0;
+    }
+
+    /**
+     * Adds a value to the heap.
+     * @param value The value to add.
+     * @param key The key of the value.
+     */
+    public void add(int value, double key)
+    {
+        if(this.size == this.values.length)
+        {
+            this.values = Arrays.copyOf(this.values, this.size * 2);
+            this.keys = Arrays.copyOf(this.keys, this.size * 2);
+        }
+
+        int k = this.size++;
+
+        while(k > 0)
+        {
+            int parent = (k - 1) >>> 1;
+
+            if(key >= this.keys[parent]) break;
+
+            this.values[k] = this.values[parent];
+            this.keys[k] = this.keys[parent];
+            k = parent;
+        }
+
+        this.values[k] = value;
+        this.keys[k] = key;
+    }
+
+    /**
+     * Returns the value with the smallest key, without removing it.
+     * @return The value with the smallest key.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int peek() throws NoSuchElementException
+    {
+        if(this.size == 0) throw new NoSuchElementException();
+
+        return this.values[0];
+    }
+
+    /**
+     * Removes and returns the value with the smallest key.
+     * @return The value with the smallest key.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int poll() throws NoSuchElementException
+    {
+        int result = this.peek();
+        int n = --this.size;
+
+        if(n > 0)
+        {
+            int value = this.values[n];
+            double key = this.keys[n];
+            int k = 0;
+            int half = n >>> 1;
+
+            while(k < half)
+            {
+                int child = (k << 1) + 1;
+                int right = child + 1;
+
+                if(right < n && this.keys[right] < this.keys[child])
+                {
+                    child = right;
+                }
+
+                if(key <= this.keys[child]) break;
+
+                this.values[k] = this.values[child];
+                this.keys[k] = this.keys[child];
+                k = child;
+            }
+
+            this.values[k] = value;
+            this.keys[k] = key;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of values in the heap.
+     * @return The number of values.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Removes all the values, keeping the allocated memory.
+     */
+    public void clear()
+    {
+        this.size = 0;
+    }
+
+    /**
+     * Heap array of values.
+     */
+    private int[] values;
+
+    /**
+     * Keys of the values, in the same order as the heap array.
+     */
+    private double[] keys;
+
+    /**
+     * Number of values in the heap.
+     */
+    private int size;
+}
@@ -0,0 +1,121 @@
+package utils;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Growable FIFO queue of primitive integers, stored in a circular array.
+ * The capacity is always a power of two and doubles when the queue is full, so adding and removing
+ * elements never allocates memory once the queue has reached its peak size.
+ */
+public class IntRingBuffer
+{
+    /**
+     * Creates an empty queue.
+     * @param initialCapacity The number of elements that can be stored before the queue grows.
+     */
+    public IntRingBuffer(int initialCapacity)
+    {
+        this.elements = new int[Integer.highestOneBit(Math.max(initialCapacity - 1, 1)) << 1];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Adds an element at the tail of the queue.
+     * @param value The element to add.
+     */
+    public void add(int value)
+    {
+        if(this.size == this.elements.length)
+        {
+            this.grow();
+        }
+
+        this.elements[(this.head + this.size) & (this.elements.length - 1)] = value;
+        this.size++;
+    }
+
+    /**
+     * Removes the element at the head of the queue.
+     * @return The removed element.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public int remove() throws NoSuchElementException
+    {
+        int value = this.element();
+
+        this.head = (this.head + 1) & (this.elements.length - 1);
+        this.size--;
+
+        return value;
+    }
+
+    /**
+     * Returns the element at the head of the queue, without removing it.
+     * @return The element at the head of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public int element() throws NoSuchElementException
+    {
+        if(this.size == 0) throw new NoSuchElementException();
+
+        return this.elements[this.head];
+    }
+
+    /**
+     * Checks if the queue is empty.
+     * @return True if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     * @return The number of elements.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Removes all the elements, keeping the allocated memory.
+     */
+    public void clear()
+    {
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Doubles the capacity, moving the elements to the beginning of the new array.
+     */
+    private void grow()
+    {
+        int[] grown = new int[this.elements.length * 2];
+        int firstPart = this.elements.length - this.head;
+
+        System.arraycopy(this.elements, this.head, grown, 0, firstPart);
+        System.arraycopy(this.elements, 0, grown, firstPart, this.head);
+
+        this.elements = grown;
+        this.head = 0;
+    }
+
+    /**
+     * Circular array of elements.
+     */
+    private int[] elements;
+
+    /**
+     * Position of the head of the queue.
+     */
+    private int head;
+
+    /**
+     * Number of elements in the queue.
+     */
+    private int size;
+}
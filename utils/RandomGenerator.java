@@ -1,11 +1,12 @@
 package utils;
 
-import java.util.Random;
-
 /**
  * Random generator that implements exponential distribution.
+ * It reproduces exactly the sequence of java.util.Random (the same 48-bit linear congruential generator and the same
+ * derivation of ints, floats and doubles), but it keeps its state in a plain field instead of an atomic one, so every
+ * draw avoids a compare-and-set. It is not thread safe: each generator must be used by a single thread.
  */
-public class RandomGenerator extends Random
+public class RandomGenerator
 {
     /**
      * Constructor.
@@ -13,7 +14,151 @@ public class RandomGenerator extends Random
      */
     public RandomGenerator(long seed)
     {
-        super(seed);
+        this.setSeed(seed);
+    }
+
+    /**
+     * Creates a generator with the same state of another one.
+     * The two generators then produce the same sequence independently.
+     * @return The copy of the generator.
+     */
+    public RandomGenerator copy()
+    {
+        RandomGenerator copy = new RandomGenerator(0);
+        copy.seed = this.seed;
+
+        return copy;
+    }
+
+    /**
+     * Sets the state of the generator to the one of another generator.
+     * @param other The generator whose state is copied.
+     */
+    public void setState(RandomGenerator other)
+    {
+        this.seed = other.seed;
+    }
+
+    /**
+     * Advances the generator as if next had been called the given number of times, in O(log steps).
+     * @param steps The number of draws to skip.
+     * @throws IllegalArgumentException If steps is negative.
+     */
+    public void advance(long steps) throws IllegalArgumentException
+    {
+        if(steps < 0) throw new IllegalArgumentException("steps must not be negative");
+
+        // Composing the affine map x -> a * x + c by squaring, the total map is x -> multiplier * x + addend.
+        long multiplier = 1;
+        long addend = 0;
+        long a = MULTIPLIER;
+        long c = ADDEND;
+
+        while(steps != 0)
+        {
+            if((steps & 1) != 0)
+            {
+                multiplier = (multiplier * a) & MASK;
+                addend = (addend * a + c) & MASK;
+            }
+
+            c = (c * (a + 1)) & MASK;
+            a = (a * a) & MASK;
+            steps >>>= 1;
+        }
+
+        this.seed = (this.seed * multiplier + addend) & MASK;
+    }
+
+    /**
+     * Sets the seed of the generator, as java.util.Random does.
+     * @param seed Seed.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    /**
+     * Generates the next pseudorandom number.
+     * @param bits Number of random bits, at most 32.
+     * @return The next pseudorandom number.
+     */
+    protected int next(int bits)
+    {
+        this.seed = (this.seed * MULTIPLIER + ADDEND) & MASK;
+
+        return (int)(this.seed >>> (48 - bits));
+    }
+
+    /**
+     * Returns the next uniformly distributed int.
+     * @return The random number.
+     */
+    public int nextInt()
+    {
+        return this.next(32);
+    }
+
+    /**
+     * Returns the next uniformly distributed int between 0 (inclusive) and bound (exclusive).
+     * @param bound The upper bound, it must be positive.
+     * @return The random number.
+     * @throws IllegalArgumentException If bound is not positive.
+     */
+    public int nextInt(int bound) throws IllegalArgumentException
+    {
+        if(bound <= 0) throw new IllegalArgumentException("bound must be positive");
+
+        int r = this.next(31);
+        int m = bound - 1;
+
+        // Power of two
+        if((bound & m) == 0)
+        {
+            return (int)((bound * (long)r) >> 31);
+        }
+
+        // Rejecting the values that would make the result biased.
+        for(int u = r; u - (r = u % bound) + m < 0; u = this.next(31));
+
+        return r;
+    }
+
+    /**
+     * Returns the next uniformly distributed long.
+     * @return The random number.
+     */
+    public long nextLong()
+    {
+        return ((long)this.next(32) << 32) + this.next(32);
+    }
+
+    /**
+     * Returns the next uniformly distributed boolean.
+     * @return The random boolean.
+     */
+    public boolean nextBoolean()
+    {
+        return this.next(1) != 0;
+    }
+
+    /**
+     * Returns the next uniformly distributed float between 0 (inclusive) and 1 (exclusive).
+     * @return The random number.
+     */
+    public float nextFloat()
+    {
+        return this.next(24) / ((float)(1 << 24));
+    }
+
+    /**
+     * Returns the next uniformly distributed double between 0 (inclusive) and 1 (exclusive).
+     * @return The random number.
+     */
+    public double nextDouble()
+    {
+        return (((long)this.next(26) << 27) + this.next(27)) * DOUBLE_UNIT;
     }
 
     /**
@@ -27,4 +172,183 @@ public class RandomGenerator extends Random
     {
         return ( -1.0 / lambda ) * Math.log( 1.0 - nextFloat() );
     }
+
+    /**
+     * Generates a random number with exponential distribution of mean 1, with the ziggurat method.
+     * Each attempt uses a single 64-bit draw: the top 8 bits select one of the 256 layers and the low 53 bits are the
+     * uniform position in the layer. About 99% of the samples are accepted by the first comparison, without calling
+     * any transcendental function. The sequence is not the one of exponentialDistribution.
+     * @return The random number.
+     */
+    public double nextExponential()
+    {
+        while(true)
+        {
+            long bits = this.nextLong();
+            int layer = (int)(bits >>> 56);
+            double x = (bits & UNIFORM_MASK) * DOUBLE_UNIT * ZIGGURAT_X[layer];
+
+            // Inside the rectangle of the layer that lies under the density.
+            if(x < ZIGGURAT_X[layer + 1])
+            {
+                return x;
+            }
+
+            // Base layer, outside the rectangle: the tail beyond r is again exponential, shifted by r.
+            if(layer == 0)
+            {
+                return ZIGGURAT_R - Math.log(1.0 - this.nextDouble());
+            }
+
+            // Wedge between the rectangle of the layer and the density.
+            double y = ZIGGURAT_F[layer] + this.nextDouble() * (ZIGGURAT_F[layer + 1] - ZIGGURAT_F[layer]);
+
+            if(y < Math.exp(-x))
+            {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Fills a range of an array with random numbers with exponential distribution, with the ziggurat method.
+     * @param out The array to fill.
+     * @param from The first index to fill (inclusive).
+     * @param to The last index to fill (exclusive).
+     * @param mean The mean of the exponential distribution, 1 / lambda.
+     */
+    public void fillExponential(double[] out, int from, int to, double mean)
+    {
+        for(int i = from; i < to; i++)
+        {
+            out[i] = mean * this.nextExponential();
+        }
+    }
+
+    /**
+     * Fills an array with random numbers with exponential distribution.
+     * The numbers are the same, and in the same order, as the ones returned by repeated calls to
+     * exponentialDistribution.
+     * @param out The array to fill.
+     * @param lambda The parameter for the exponential distribution.
+     */
+    public void fill(double[] out, double lambda)
+    {
+        this.fill(out, 0, out.length, lambda);
+    }
+
+    /**
+     * Fills a range of an array with random numbers with exponential distribution.
+     * @param out The array to fill.
+     * @param from The first index to fill (inclusive).
+     * @param to The last index to fill (exclusive).
+     * @param lambda The parameter for the exponential distribution.
+     */
+    public void fill(double[] out, int from, int to, double lambda)
+    {
+        double scale = -1.0 / lambda;
+        long state = this.seed;
+
+        for(int i = from; i < to; i++)
+        {
+            state = (state * MULTIPLIER + ADDEND) & MASK;
+            out[i] = scale * Math.log(1.0 - (int)(state >>> 24) / ((float)(1 << 24)));
+        }
+
+        this.seed = state;
+    }
+
+    /**
+     * Derives the seed of an independent substream from a base seed and a stream index.
+     * The pair is mixed with the SplitMix64 finalizer, so that nearby seeds and indexes give uncorrelated generators,
+     * and the same pair always gives the same seed.
+     * @param seed The base seed.
+     * @param stream The index of the substream.
+     * @return The seed of the substream.
+     */
+    public static long substreamSeed(long seed, long stream)
+    {
+        long z = seed + (stream + 1) * GOLDEN_GAMMA;
+
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Multiplier of the linear congruential generator, the same of java.util.Random.
+     */
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+
+    /**
+     * Addend of the linear congruential generator, the same of java.util.Random.
+     */
+    private static final long ADDEND = 0xBL;
+
+    /**
+     * Mask that keeps the 48 bits of the state.
+     */
+    private static final long MASK = (1L << 48) - 1;
+
+    /**
+     * Scale that turns 53 random bits into a double in [0, 1).
+     */
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    /**
+     * Mask of the 53 bits used as uniform position in a ziggurat layer.
+     */
+    private static final long UNIFORM_MASK = (1L << 53) - 1;
+
+    /**
+     * Start of the tail of the exponential ziggurat with 256 layers.
+     */
+    private static final double ZIGGURAT_R = 7.69711747013104972;
+
+    /**
+     * Area of each layer of the exponential ziggurat with 256 layers.
+     */
+    private static final double ZIGGURAT_V = 3.949659822581572e-3;
+
+    /**
+     * Right edge of each layer of the ziggurat, from the base (the width of the virtual rectangle that includes the
+     * tail) to the top (0).
+     */
+    private static final double[] ZIGGURAT_X = new double[257];
+
+    /**
+     * Density at the right edge of each layer of the ziggurat.
+     */
+    private static final double[] ZIGGURAT_F = new double[257];
+
+    static
+    {
+        // Every layer has the same area v: x[i + 1] is the abscissa where the density reaches f(x[i]) + v / x[i].
+        ZIGGURAT_X[0] = ZIGGURAT_V / Math.exp(-ZIGGURAT_R);
+        ZIGGURAT_X[1] = ZIGGURAT_R;
+
+        for(int i = 1; i < 256; i++)
+        {
+            double height = Math.exp(-ZIGGURAT_X[i]) + ZIGGURAT_V / ZIGGURAT_X[i];
+            ZIGGURAT_X[i + 1] = height < 1 ? -Math.log(height) : 0;
+        }
+
+        ZIGGURAT_X[256] = 0;
+
+        for(int i = 0; i <= 256; i++)
+        {
+            ZIGGURAT_F[i] = Math.exp(-ZIGGURAT_X[i]);
+        }
+    }
+
+    /**
+     * Odd constant used by SplitMix64 to space the substreams.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Current 48-bit state of the generator.
+     */
+    private long seed;
 }
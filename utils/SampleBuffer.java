@@ -0,0 +1,112 @@
+package utils;
+
+/**
+ * Buffer of samples of an exponential distribution, drawn in bulk from a random generator.
+ * Samples are returned in the same order in which they would be drawn one at a time, so the buffer does not change
+ * the sequence. The generator runs ahead of the consumed samples; sync brings it back to the state that follows the
+ * last consumed sample, so that it can be used directly.
+ */
+public class SampleBuffer
+{
+    /**
+     * Creates an empty buffer.
+     * @param generator The random generator.
+     * @param sampler The method used to sample the distribution.
+     * @param lambda The parameter of the distribution.
+     * @param capacity The number of samples drawn by each refill.
+     */
+    public SampleBuffer(RandomGenerator generator, ExponentialSampler sampler, double lambda, int capacity)
+    {
+        this.generator = generator;
+        this.sampler = sampler;
+        this.lambda = lambda;
+        this.mean = 1.0 / lambda;
+        this.samples = new double[capacity];
+        this.position = capacity;
+        this.start = generator.copy();
+    }
+
+    /**
+     * Returns the next sample, refilling the buffer when it is empty.
+     * @return The sample.
+     */
+    public double next()
+    {
+        if(this.position == this.samples.length)
+        {
+            this.refill();
+        }
+
+        return this.samples[this.position++];
+    }
+
+    /**
+     * Discards the samples not consumed yet and brings the generator to the state that follows the consumed ones.
+     * @return The generator.
+     */
+    public RandomGenerator sync()
+    {
+        if(this.position < this.samples.length)
+        {
+            this.generator.setState(this.start);
+            this.sampler.skip(this.generator, this.position);
+            this.position = this.samples.length;
+        }
+
+        return this.generator;
+    }
+
+    /**
+     * Returns the mean of the distribution.
+     * @return 1 / lambda.
+     */
+    public double getMean()
+    {
+        return this.mean;
+    }
+
+    /**
+     * Draws a new batch of samples, saving the state of the generator before it.
+     */
+    private void refill()
+    {
+        this.start.setState(this.generator);
+        this.sampler.fill(this.generator, this.samples, 0, this.samples.length, this.lambda, this.mean);
+        this.position = 0;
+    }
+
+    /**
+     * The random generator.
+     */
+    private final RandomGenerator generator;
+
+    /**
+     * The method used to sample the distribution.
+     */
+    private final ExponentialSampler sampler;
+
+    /**
+     * The parameter of the distribution.
+     */
+    private final double lambda;
+
+    /**
+     * The mean of the distribution, 1 / lambda.
+     */
+    private final double mean;
+
+    /**
+     * The drawn samples.
+     */
+    private final double[] samples;
+
+    /**
+     * State of the generator before the current batch.
+     */
+    private final RandomGenerator start;
+
+    /**
+     * Position of the next sample, equal to the capacity when the buffer is empty.
+     */
+    private int position;
+}